@@ -4,6 +4,13 @@ import com.google.gson.*;
 import net.helpscout.api.adapters.*;
 import net.helpscout.api.cbo.*;
 import net.helpscout.api.exception.*;
+import net.helpscout.api.http.ConditionalCache;
+import net.helpscout.api.http.HttpClientTransport;
+import net.helpscout.api.http.RateLimiter;
+import net.helpscout.api.http.Request;
+import net.helpscout.api.http.Response;
+import net.helpscout.api.http.RetryingTransport;
+import net.helpscout.api.http.Transport;
 import net.helpscout.api.json.JsonFormatter;
 import net.helpscout.api.model.*;
 import net.helpscout.api.model.Customer;
@@ -28,29 +35,28 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.*;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.Inflater;
-import java.util.zip.InflaterInputStream;
 
 import static java.text.MessageFormat.format;
 
 public class ApiClient {
 
-    private final static String DEFAULT_BASE_URL = "https://api.helpscout.net/v1/";
-    private final static String METHOD_GET = "GET";
+    final static String DEFAULT_BASE_URL = "https://api.helpscout.net/v1/";
+    final static String METHOD_GET = "GET";
     private final static String METHOD_POST = "POST";
     private final static String METHOD_PUT = "PUT";
     private final static String METHOD_DELETE = "DELETE";
 
-    private final static int HTTP_STATUS_OK = 200;
+    final static int HTTP_STATUS_OK = 200;
     private final static int HTTP_STATUS_CREATED = 201;
 
     private String apiKey = "";
     private String baseUrl = DEFAULT_BASE_URL;
+    private Transport transport = new RetryingTransport(new HttpClientTransport());
+    private RateLimiter rateLimiter = new RateLimiter();
+    private volatile SingleFlight singleFlight;
+    private ConditionalCache conditionalCache;
 
     private static ApiClient instance = new ApiClient();
 
@@ -68,6 +74,67 @@ public class ApiClient {
         this.baseUrl = baseUrl;
     }
 
+    /**
+     * Replaces the transport used to talk to the API. The previous transport
+     * is not closed, as it may be shared.
+     *
+     * @param transport
+     */
+    public void setTransport(Transport transport) {
+        this.transport = transport;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Replaces the limiter every request waits on. By default requests are
+     * only throttled once the API advertises a rate limit or asks to back
+     * off; null disables throttling.
+     *
+     * @param rateLimiter
+     */
+    public void setRateLimiter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * When enabled, concurrent GETs for the same URL share one request and
+     * its parsed result, so callers must not modify the objects returned.
+     * Disabled by default.
+     *
+     * @param coalesceGets
+     */
+    public void setCoalesceGets(boolean coalesceGets) {
+        this.singleFlight = coalesceGets ? new SingleFlight() : null;
+    }
+
+    public boolean isCoalesceGets() {
+        return singleFlight != null;
+    }
+
+    /**
+     * Sets the cache GETs are revalidated against. Responses carrying an
+     * {@code ETag} or {@code Last-Modified} header are kept with their parsed
+     * result; when the API answers a later request for the same URL with
+     * {@code 304 Not Modified} that result is returned again. Null, the
+     * default, disables caching.
+     *
+     * @param conditionalCache
+     */
+    public void setConditionalCache(ConditionalCache conditionalCache) {
+        this.conditionalCache = conditionalCache;
+    }
+
+    public ConditionalCache getConditionalCache() {
+        return conditionalCache;
+    }
+
     /**
      * Gets the mailbox with the specified id.
      *
@@ -541,26 +608,24 @@ public class ApiClient {
             throw new ApiException("Invalid threadID in getThreadSource");
         }
         String url = "conversations/" + conversationID + "/thread-source/" + threadID + ".json";
-        String json;
+        byte[] data;
         try {
-            json = doGet(url, HTTP_STATUS_OK);
+            data = doGetData(url);
         } catch(RuntimeException e) {
             if (e.getCause() instanceof NotFoundException) {
-                json = null;
+                data = null;
             } else {
                 throw e;
             }
         }
-        if (json != null) {
-            JsonElement obj = parseJson(url, json);
-            JsonElement elem  = obj.getAsJsonObject().get("item");
-            return new String(getDecoded(elem.getAsJsonObject().get("data").getAsString()));
+        if (data != null) {
+            return new String(data);
         } 
         return null;
     }
 
-    private JsonElement parseJson(String url, String json) {
-        LoggerFactory.getLogger(getClass()).trace("{}: {}", url, json);
+    private static JsonElement parseJson(String json) {
+        LoggerFactory.getLogger(ApiClient.class).trace("{}", json);
         JsonElement obj = (new JsonParser()).parse(json);
         return obj;
     }
@@ -600,10 +665,7 @@ public class ApiClient {
             throw new ApiException("Invalid attachmentID in getAttachmentData");
         }
         String url = "attachments/" + attachmentID + "/data.json";
-        String json = doGet(url, HTTP_STATUS_OK);
-        JsonElement obj = parseJson(url, json);
-        JsonElement elem  = obj.getAsJsonObject().get("item");
-        return getDecoded(elem.getAsJsonObject().get("data").getAsString());
+        return doGetData(url);
     }
 
     /**
@@ -654,6 +716,17 @@ public class ApiClient {
         return getPage(url, Customer.class, HTTP_STATUS_OK);
     }
 
+    /**
+     * Gets a page of customers.
+     *
+     * @param queryParams
+     * @return Page
+     * @throws ApiException
+     */
+    public Page<Customer> getCustomers(Map<String, String> queryParams) throws ApiException {
+        return getPage("customers.json", queryParams, Customer.class, HTTP_STATUS_OK);
+    }
+
     /**
      * Gets a page of customers.
      *
@@ -717,15 +790,7 @@ public class ApiClient {
      * @throws ApiException
      */
     public Page<SearchConversation> searchConversations(String query, String sortField, String sortOrder, Integer page) throws ApiException {
-        Map<String, String> params = new HashMap<String, String>();
-        params.put("query", query);
-        if (sortField != null && sortField.trim().length() > 0) {
-            params.put("sortField", sortField);
-        }
-        if (sortOrder != null && sortOrder.trim().length() > 0) {
-            params.put("sortOrder", sortOrder);
-        }
-        params.put("page", String.valueOf(page));
+        Map<String, String> params = getSearchParams(query, sortField, sortOrder, page);
         return getPage("search/conversations.json", params, SearchConversation.class, HTTP_STATUS_OK);
     }
 
@@ -740,15 +805,7 @@ public class ApiClient {
      * @throws ApiException
      */
     public Page<SearchCustomer> searchCustomers(String query, String sortField, String sortOrder, Integer page) throws ApiException {
-        Map<String, String> params = new HashMap<String, String>();
-        params.put("query", query);
-        if (sortField != null && sortField.trim().length() > 0) {
-            params.put("sortField", sortField);
-        }
-        if (sortOrder != null && sortOrder.trim().length() > 0) {
-            params.put("sortOrder", sortOrder);
-        }
-        params.put("page", String.valueOf(page));
+        Map<String, String> params = getSearchParams(query, sortField, sortOrder, page);
         return getPage("search/customers.json", params, SearchCustomer.class, HTTP_STATUS_OK);
     }
 
@@ -1264,10 +1321,7 @@ public class ApiClient {
 
     public List<DayStats> getBusiestTimeOfDayReport(Map<String, String> queryParams) throws ApiException {
         String url = setParams("reports/conversations/busy-times.json", queryParams);
-        String json = doGet(url, HTTP_STATUS_OK);
-        JsonElement busyTimes = (new JsonParser()).parse(json);
-
-        return getPageItems(busyTimes, DayStats.class);
+        return doGet(url, HTTP_STATUS_OK, listExtractor(DayStats.class));
     }
 
     public DatesAndCounts getNewConversationsReport(Map<String, String> queryParams) throws ApiException {
@@ -1416,7 +1470,7 @@ public class ApiClient {
         }
     }
 
-    private String setParams(String url, Map<String, String> params) {
+    static String setParams(String url, Map<String, String> params) {
         if (params != null && params.size() > 0) {
             StringBuilder sb = new StringBuilder();
             sb.append(url);
@@ -1433,7 +1487,7 @@ public class ApiClient {
         return url;
     }
 
-    private String setFields(String url, List<String> fields) {
+    static String setFields(String url, List<String> fields) {
         if (fields != null && fields.size() > 0) {
             StringBuilder sb = new StringBuilder();
             sb.append(url);
@@ -1454,7 +1508,20 @@ public class ApiClient {
         return url;
     }
 
-    private Map<String, String> getCustomerSearchParams(String email, String firstName, String lastName, Integer page) {
+    static Map<String, String> getSearchParams(String query, String sortField, String sortOrder, Integer page) {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("query", query);
+        if (sortField != null && sortField.trim().length() > 0) {
+            params.put("sortField", sortField);
+        }
+        if (sortOrder != null && sortOrder.trim().length() > 0) {
+            params.put("sortOrder", sortOrder);
+        }
+        params.put("page", String.valueOf(page));
+        return params;
+    }
+
+    static Map<String, String> getCustomerSearchParams(String email, String firstName, String lastName, Integer page) {
         Map<String, String> params = new HashMap<String, String>();
         if (email != null && email.trim().length() > 0) {
             params.put("email", email.trim().toLowerCase());
@@ -1475,16 +1542,11 @@ public class ApiClient {
     }
     
     private <T> T getObject(String url, Class<T> clazzType) throws ApiException {
-        String json = doGet(url, HTTP_STATUS_OK);
-        return Parser.getInstance().getObject(json, clazzType);     
+        return doGet(url, HTTP_STATUS_OK, objectExtractor(clazzType));
     }
 
     private <T> T getItem(String url, Class<T> clazzType, int expectedCode) throws ApiException {
-        String json = doGet(url, expectedCode);
-        JsonElement obj = parseJson(url, json);
-        JsonElement item = obj.getAsJsonObject().get("item");
-
-        return Parser.getInstance().getObject(item, clazzType);
+        return doGet(url, expectedCode, itemExtractor(clazzType));
     }
     
     private <T> Page<T> getPage(String url, Class<T> clazzType, int expectedCode) throws ApiException {
@@ -1492,94 +1554,21 @@ public class ApiClient {
     }
     
     private <T> Page<T> getPage(String url, Class<T> clazzType, String wrapperObjectName) throws ApiException {
-        String json = doGet(url, HTTP_STATUS_OK);
-
-        JsonObject outerObj = parseJson(url, json).getAsJsonObject();
-        JsonObject innerObj = outerObj.get(wrapperObjectName).getAsJsonObject();
-        
-        return objectToPage(innerObj, clazzType);
+        return doGet(url, HTTP_STATUS_OK, pageExtractor(clazzType, wrapperObjectName));
     }
 
     private <T> Page<T> getPage(String url, Map<String,String> params, Class<T> clazzType, int expectedCode) throws ApiException {
         url = setParams(url, params);
-        String json = doGet(url, HTTP_STATUS_OK);
-        JsonElement obj = parseJson(url, json);
-        
-        return objectToPage(obj.getAsJsonObject(), clazzType);
+        return doGet(url, HTTP_STATUS_OK, pageExtractor(clazzType, null));
     }
-    
-    private <T> Page<T> objectToPage(JsonObject obj, Class<T> clazzType) {
-        Set<Map.Entry<String, JsonElement>> set = obj.entrySet();
-
-        Page<T> p = new Page<T>();
-
-        for (Map.Entry<String, JsonElement> a : set) {
-            String key = a.getKey();
-            JsonElement val = a.getValue();
 
-            if (key.equals("page")) {
-                p.setPage(val.getAsInt());
-                continue;
-            }
-            if (key.equals("pages")) {
-                p.setPages(val.getAsInt());
-                continue;
-            }
-            if (key.equals("count")) {
-                p.setCount(val.getAsInt());
-                continue;
-            }
-            if (key.equals("items") || key.equalsIgnoreCase("results")) {
-                p.setItems(getPageItems(val, clazzType));
-            }
-        }
-        return p;
+    private <T> T doPost(String url, String requestBody, int expectedCode, ResponseExtractor<T> extractor) throws ApiException {
+        return execute(newRequest(METHOD_POST, url, requestBody), expectedCode, extractor);
     }
 
-    private <T> ArrayList<T> getPageItems(JsonElement elem, Class<T> clazzType) {
-        JsonArray ar = elem.getAsJsonArray();
-        ArrayList<T> col = new ArrayList<T>(ar.size());
-        for (JsonElement e : ar) {
-            T o = (T) Parser.getInstance().getObject(e, clazzType);
-            if (o != null) {
-                col.add(o);
-            }
-        }
-        return col;
-    }
-
-    private <T> T doPost(String url, String requestBody, int expectedCode, ResultExtractor<T> extractor) throws ApiException {
-        HttpURLConnection conn = null;
-        try {
-            conn = getConnection(apiKey, url, METHOD_POST, requestBody != null);
-
-            if (requestBody != null) {
-                conn.setDoOutput(true);
-                OutputStream output = null;
-                try {
-                    output = conn.getOutputStream();
-                    output.write(requestBody.getBytes("UTF-8"));
-                } finally {
-                    if (output != null) {
-                        try { output.close(); } catch (IOException ignored) {}
-                    }
-                }
-            }
-            conn.connect();
-            checkStatusCode(conn, expectedCode);
-            return extractor.extract(conn);
-        } catch(ApiException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            throw new RuntimeException(ex);
-        } finally {
-            close(conn);
-        }
-    }
-
-    private final ResultExtractor<Long> idExtractor = new ResultExtractor<Long>() {
-        public Long extract(HttpURLConnection conn) {
-            String location = conn.getHeaderField("LOCATION");
+    private static final ResponseExtractor<Long> idExtractor = new ResponseExtractor<Long>() {
+        public Long extract(Response response) {
+            String location = response.getHeader("LOCATION");
             if (location != null && location.trim().length() > 0) {
                 return new Long(location.substring(
                         location.lastIndexOf("/") + 1,
@@ -1590,18 +1579,18 @@ public class ApiClient {
         }
     };
 
-    private final ResultExtractor<String> hashExtractor = new ResultExtractor<String>() {
-        public String extract(HttpURLConnection conn) {
+    private static final ResponseExtractor<String> hashExtractor = new ResponseExtractor<String>() {
+        public String extract(Response response) {
             String hash = null;
             BufferedReader br = null;
-            String response;
+            String responseBody;
             try {
                 br = new BufferedReader(new InputStreamReader(
-                        (getInputStream(conn)), Charset.forName("UTF8")));
-                response = getResponse(br);
+                        response.getBody(), Charset.forName("UTF8")));
+                responseBody = getResponse(br);
                 LoggerFactory.getLogger(getClass()).debug("attachment: {}",
-                        response);
-                JsonElement obj = (new JsonParser()).parse(response);
+                        responseBody);
+                JsonElement obj = (new JsonParser()).parse(responseBody);
                 JsonElement item = obj.getAsJsonObject().get("item");
                 hash = item.getAsJsonObject().get("hash").getAsString();
             } catch (Exception e) {
@@ -1609,97 +1598,176 @@ public class ApiClient {
                 throw new RuntimeException(e);
             } finally {
                 close(br);
-                close(conn);
             }
             return hash;
         }
     };
 
     private void doPut(String url, String requestBody, int expectedCode) throws ApiException {
-        HttpURLConnection conn = null;
-        try {
-            conn = getConnection(apiKey, url, METHOD_PUT, requestBody != null);
-            if (requestBody != null) {
-                conn.setDoOutput(true);
-                OutputStream output = null;
+        execute(newRequest(METHOD_PUT, url, requestBody), expectedCode, null);
+    }
+
+    private String doGet(String url, int expectedCode) throws ApiException {
+        return doGet(url, expectedCode, stringExtractor);
+    }
+
+    private <T> T doGet(String url, final int expectedCode, final ResponseExtractor<T> extractor) throws ApiException {
+        return doGet(url, expectedCode, extractor, conditionalCache);
+    }
+
+    /**
+     * Attachment and thread source bytes are fetched without the
+     * conditional cache, which would keep them in memory.
+     */
+    private byte[] doGetData(String url) throws ApiException {
+        return doGet(url, HTTP_STATUS_OK, dataExtractor, null);
+    }
+
+    private <T> T doGet(String url, final int expectedCode, final ResponseExtractor<T> extractor,
+                        final ConditionalCache cache) throws ApiException {
+        final Request request = newRequest(METHOD_GET, url, null);
+        final ConditionalCache.Entry validated = cache != null ? cache.prepare(request) : null;
+        SingleFlight flight = singleFlight;
+        if (flight == null) {
+            return execute(request, expectedCode, extractor, cache, validated);
+        }
+        return flight.execute(request.getUrl(), () -> execute(request, expectedCode, extractor, cache, validated));
+    }
+
+    static final ResponseExtractor<String> stringExtractor = new ResponseExtractor<String>() {
+        public String extract(Response response) {
+            BufferedReader br = null;
+            try {
+                br = new BufferedReader(new InputStreamReader(response.getBody(), Charset.forName("UTF8")));
+                return getResponse(br);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                close(br);
+            }
+        }
+    };
+
+    static final ResponseExtractor<byte[]> dataExtractor = new ResponseExtractor<byte[]>() {
+        public byte[] extract(Response response) {
+            JsonElement obj = parseJson(stringExtractor.extract(response));
+            JsonElement elem  = obj.getAsJsonObject().get("item");
+            return getDecoded(elem.getAsJsonObject().get("data").getAsString());
+        }
+    };
+
+    static <T> ResponseExtractor<T> itemExtractor(final Class<T> clazzType) {
+        return bodyExtractor(body -> Parser.getInstance().getItem(body, clazzType));
+    }
+
+    static <T> ResponseExtractor<T> objectExtractor(final Class<T> clazzType) {
+        return bodyExtractor(body -> Parser.getInstance().getObject(body, clazzType));
+    }
+
+    static <T> ResponseExtractor<List<T>> listExtractor(final Class<T> clazzType) {
+        return bodyExtractor(body -> Parser.getInstance().getList(body, clazzType));
+    }
+
+    static <T> ResponseExtractor<Page<T>> pageExtractor(final Class<T> clazzType, final String wrapperObjectName) {
+        return bodyExtractor(body -> Parser.getInstance().getPage(body, clazzType, wrapperObjectName));
+    }
+
+    /**
+     * Decodes the response straight from its stream, with the codec of the
+     * {@link Parser}.
+     */
+    private static <T> ResponseExtractor<T> bodyExtractor(final BodyDecoder<T> decoder) {
+        return new ResponseExtractor<T>() {
+            public T extract(Response response) {
+                BufferedReader br = null;
                 try {
-                    output = conn.getOutputStream();
-                    output.write(requestBody.getBytes("UTF-8"));
+                    br = new BufferedReader(new InputStreamReader(response.getBody(), Charset.forName("UTF8")));
+                    return decoder.decode(br);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
                 } finally {
-                    if (output != null) {
-                        try { output.close(); } catch (IOException ignored) {}
-                    }
+                    close(br);
                 }
             }
-            conn.connect();
-            checkStatusCode(conn, expectedCode);
-        } catch(ApiException ex) {
-            throw ex;
-        } catch (Exception ex) {
-            ex.printStackTrace();
-            throw new RuntimeException(ex);
-        } finally {
-            close(conn);
-        }
+        };
     }
 
-    private String doGet(String url, int expectedCode) throws ApiException {
-        HttpURLConnection conn = null;
-        BufferedReader br  = null;
-        String response    = null;
-        try {
-            conn = getConnection(apiKey, url, METHOD_GET, false);
-            conn.connect();
-            checkStatusCode(conn, expectedCode);
-
-            br = new BufferedReader(new InputStreamReader((getInputStream(conn)), Charset.forName("UTF8")));
-            response = getResponse(br);
-        } catch(ApiException e) {
-            throw e;
-        } catch(Exception e) {
-            throw new RuntimeException(e);
-        } finally {
-            close(br);
-            close(conn);
-        }
-        return response;
+    private interface BodyDecoder<T> {
+        T decode(Reader body) throws IOException;
     }
 
     private void doDelete(String url, int expectedCode) throws ApiException {
-        HttpURLConnection conn = null;
+        execute(newRequest(METHOD_DELETE, url, null), expectedCode, null);
+    }
+
+    private <T> T execute(Request request, int expectedCode, ResponseExtractor<T> extractor) throws ApiException {
+        return execute(request, expectedCode, extractor, null, null);
+    }
+
+    private <T> T execute(Request request, int expectedCode, ResponseExtractor<T> extractor, ConditionalCache cache,
+                          ConditionalCache.Entry validated) throws ApiException {
+        RateLimiter limiter = rateLimiter;
+        Response response = null;
         try {
-            conn = getConnection(apiKey, url, METHOD_DELETE, false);
-            conn.connect();
-            checkStatusCode(conn, expectedCode);
+            Transport transport = this.transport;
+            if (transport instanceof RetryingTransport) {
+                // retries take their own tokens
+                response = ((RetryingTransport) transport).execute(request, limiter);
+            } else {
+                if (limiter != null) {
+                    limiter.acquire();
+                }
+                response = transport.execute(request);
+                if (limiter != null) {
+                    limiter.update(response);
+                }
+            }
+            if (cache != null) {
+                T cached = cache.notModified(validated, response);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            checkStatusCode(response, expectedCode);
+            T result = extractor != null ? extractor.extract(response) : null;
+            if (cache != null) {
+                cache.store(request, response, result);
+            }
+            return result;
         } catch(ApiException e) {
             throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for the rate limit");
         } catch (Exception ex) {
-            ex.printStackTrace();
             throw new RuntimeException(ex);
         } finally {
-            close(conn);
+            close(response);
         }
     }
 
-    private HttpURLConnection getConnection(String apiKey, String url, String method, boolean hasRequestBody) throws Exception {
-        URL aUrl = new URL(baseUrl + url);
-
-        HttpURLConnection conn = (HttpURLConnection) aUrl.openConnection();
+    private Request newRequest(String method, String url, String requestBody) {
+        return newRequest(method, baseUrl, apiKey, url, requestBody);
+    }
 
-        conn.setInstanceFollowRedirects(false);
-        conn.setRequestMethod(method);
+    static Request newRequest(String method, String baseUrl, String apiKey, String url, String requestBody) {
+        Request request = new Request(method, baseUrl + url);
 
-        if (hasRequestBody) {
-            conn.setRequestProperty("Content-Type", "application/json");
-            conn.setRequestProperty("Accept", "application/json");
+        if (requestBody != null) {
+            request.header("Content-Type", "application/json");
+            request.header("Accept", "application/json");
+            try {
+                request.setBody(requestBody.getBytes("UTF-8"));
+            } catch (UnsupportedEncodingException e) {
+                throw new IllegalStateException("UTF-8 should always be there!", e);
+            }
         }
-        conn.setRequestProperty("Authorization", "Basic " + getEncoded(apiKey + ":x"));
-        conn.setRequestProperty("Accept-Encoding", "gzip, deflate");
-        return conn;
+        request.header("Authorization", "Basic " + getEncoded(apiKey + ":x"));
+        return request;
     }
 
-    private void checkStatusCode(HttpURLConnection conn, int expectedCode) throws ApiException, IOException {
-        int code = conn.getResponseCode();
+    static void checkStatusCode(Response response, int expectedCode) throws ApiException, IOException {
+        int code = response.getStatusCode();
         
         if (code == expectedCode) {
             return;
@@ -1707,7 +1775,7 @@ public class ApiClient {
 
         switch(code) {
             case 400:
-                String details = getDetailedErrorMessage(conn);
+                String details = getDetailedErrorMessage(response);
                 throw new InvalidFormatException("The request was not formatted correctly", details);
             case 401:
                 throw new InvalidApiKeyException("Invalid API key");
@@ -1722,7 +1790,7 @@ public class ApiClient {
             case 429:
                 throw new ThrottleRateException("Throttle limit reached. Too many requests");
             case 500:
-                throw new ServerException("Application error or server error", getDetailedErrorMessage(conn));
+                throw new ServerException("Application error or server error", getDetailedErrorMessage(response));
             case 503:
                 throw new ServiceUnavailableException("Service Temporarily Unavailable");
             default:
@@ -1730,14 +1798,14 @@ public class ApiClient {
         }
     }
     
-    private String getDetailedErrorMessage(HttpURLConnection conn) throws IOException {
-        InputStream is = conn.getErrorStream();
+    private static String getDetailedErrorMessage(Response response) throws IOException {
+        InputStream is = response.getBody();
         String json = IOUtils.toString(is, "UTF-8");
         
         return StringUtils.isNotEmpty(json) ? new JsonFormatter().format(json) : null;
     }
 
-    private String getResponse(BufferedReader reader) throws IOException {
+    private static String getResponse(BufferedReader reader) throws IOException {
         StringBuilder sb = new StringBuilder();
 
         String line;
@@ -1748,17 +1816,17 @@ public class ApiClient {
         return sb.toString();
     }
 
-    private void close(HttpURLConnection conn) {
-        if (conn != null) {
+    private void close(Response response) {
+        if (response != null) {
             try {
-                conn.disconnect();
+                response.close();
             } catch (Exception e) {
                 // ignore
             }
         }
     }
 
-    private void close(BufferedReader reader) {
+    private static void close(BufferedReader reader) {
         if (reader != null) {
             try {
                 reader.close();
@@ -1768,27 +1836,7 @@ public class ApiClient {
         }
     }
 
-    private InputStream getInputStream(HttpURLConnection conn) throws IOException {
-        String encoding = conn.getContentEncoding();
-
-        InputStream inputStream = null;
-
-        //create the appropriate stream wrapper based on
-        //the encoding type
-        if (encoding != null) {
-            if (encoding.equalsIgnoreCase("gzip")) {
-                inputStream = new GZIPInputStream(conn.getInputStream());
-            } else if (encoding.equalsIgnoreCase("deflate")) {
-                inputStream = new InflaterInputStream(conn.getInputStream(), new Inflater(true));
-            }
-        }
-        if (inputStream == null) {
-            inputStream = conn.getInputStream();
-        }
-        return inputStream;
-    }
-
-    private String getEncoded(String val) {
+    private static String getEncoded(String val) {
         try {
             return Base64.encodeBase64String(val.getBytes("UTF-8"));
         } catch (UnsupportedEncodingException e) {
@@ -1796,7 +1844,7 @@ public class ApiClient {
         }
     }
 
-    private byte[] getDecoded(String val) {
+    private static byte[] getDecoded(String val) {
         return Base64.decodeBase64(val);
     }
 }
@@ -0,0 +1,498 @@
+package net.helpscout.api;
+
+import net.helpscout.api.exception.NotFoundException;
+import net.helpscout.api.http.AsyncTransport;
+import net.helpscout.api.http.HttpAsyncClientTransport;
+import net.helpscout.api.http.Response;
+import net.helpscout.api.model.*;
+import net.helpscout.api.model.Customer;
+import net.helpscout.api.model.customer.SearchCustomer;
+import net.helpscout.api.model.report.common.DatesAndCounts;
+import net.helpscout.api.model.report.common.DatesAndElapsedTimes;
+import net.helpscout.api.model.report.common.Rating;
+import net.helpscout.api.model.report.conversations.ConversationsReport;
+import net.helpscout.api.model.report.conversations.DayStats;
+import net.helpscout.api.model.report.docs.DocsReport;
+import net.helpscout.api.model.report.happiness.HappinessReport;
+import net.helpscout.api.model.report.productivity.ProductivityReport;
+import net.helpscout.api.model.report.team.TeamReport;
+import net.helpscout.api.model.report.user.ConversationStats;
+import net.helpscout.api.model.report.user.UserHappiness;
+import net.helpscout.api.model.report.user.UserReport;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+import static java.text.MessageFormat.format;
+import static net.helpscout.api.ApiClient.*;
+
+/**
+ * Non-blocking mirror of the read methods of {@link ApiClient}. Every method
+ * returns immediately; the future completes with the same result the blocking
+ * method would return, or exceptionally with the same {@link ApiException}.
+ *
+ * Requests run on the {@link AsyncTransport}'s reactor threads, responses are
+ * decoded on the executor set with {@link #setExecutor(Executor)}, by default
+ * the common fork-join pool.
+ */
+public class AsyncApiClient {
+
+    private String apiKey = "";
+    private String baseUrl = DEFAULT_BASE_URL;
+    private AsyncTransport transport;
+    private Executor executor = ForkJoinPool.commonPool();
+
+    private static AsyncApiClient instance = new AsyncApiClient();
+
+    private AsyncApiClient() {}
+
+    public static AsyncApiClient getInstance() {
+        return instance;
+    }
+
+    public void setKey(String apiKey) {
+        this.apiKey = apiKey;
+    }
+
+    public void setBaseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Replaces the transport used to talk to the API. The previous transport
+     * is not closed, as it may be shared.
+     *
+     * @param transport
+     */
+    public synchronized void setTransport(AsyncTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     * @return the transport, started on first use
+     */
+    public synchronized AsyncTransport getTransport() {
+        if (transport == null) {
+            transport = new HttpAsyncClientTransport();
+        }
+        return transport;
+    }
+
+    /**
+     * Sets the executor responses are decoded on.
+     *
+     * @param executor
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Mailbox> getMailbox(Long mailboxID) {
+        return getItem("mailboxes/" + mailboxID + ".json", Mailbox.class);
+    }
+
+    public CompletableFuture<Mailbox> getMailbox(Long mailboxID, List<String> fields) {
+        if (mailboxID == null || mailboxID < 1) {
+            return failed(new ApiException("Invalid mailboxId in getMailbox"));
+        }
+        return getItem(setFields("mailboxes/" + mailboxID + ".json", fields), Mailbox.class);
+    }
+
+    public CompletableFuture<Page<Mailbox>> getMailboxes() {
+        return getPage("mailboxes.json", Mailbox.class);
+    }
+
+    public CompletableFuture<Page<Mailbox>> getMailboxes(List<String> fields) {
+        return getPage(setFields("mailboxes.json", fields), Mailbox.class);
+    }
+
+    public CompletableFuture<Page<Mailbox>> getMailboxes(Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes.json", queryParams), Mailbox.class);
+    }
+
+    public CompletableFuture<Page<Folder>> getFolders(Long mailboxId) {
+        return getPage("mailboxes/" + mailboxId + "/folders.json", Folder.class);
+    }
+
+    public CompletableFuture<Page<Folder>> getFolders(Long mailboxId, List<String> fields) {
+        return getPage(setFields("mailboxes/" + mailboxId + "/folders.json", fields), Folder.class);
+    }
+
+    public CompletableFuture<Page<Folder>> getFolders(Long mailboxId, Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes/" + mailboxId + "/folders.json", queryParams), Folder.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForFolder(Long mailboxID, Long folderID) {
+        return getPage("mailboxes/" + mailboxID + "/folders/" + folderID + "/conversations.json", Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForFolder(Long mailboxID, Long folderID, List<String> fields) {
+        return getPage(setFields("mailboxes/" + mailboxID + "/folders/" + folderID + "/conversations.json", fields), Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForFolder(Long mailboxID, Long folderID, Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes/" + mailboxID + "/folders/" + folderID + "/conversations.json", queryParams), Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForMailbox(Long mailboxID) {
+        return getPage("mailboxes/" + mailboxID + "/conversations.json", Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForMailbox(Long mailboxID, List<String> fields) {
+        return getPage(setFields("mailboxes/" + mailboxID + "/conversations.json", fields), Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForMailbox(Long mailboxID, Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes/" + mailboxID + "/conversations.json", queryParams), Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForCustomerByMailbox(Long mailboxID, Long customerID) {
+        return getPage("mailboxes/" + mailboxID + "/customers/" + customerID + "/conversations.json", Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForCustomerByMailbox(Long mailboxID, Long customerID, List<String> fields) {
+        return getPage(setFields("mailboxes/" + mailboxID + "/customers/" + customerID + "/conversations.json", fields), Conversation.class);
+    }
+
+    public CompletableFuture<Page<Conversation>> getConversationsForCustomerByMailbox(Long mailboxID, Long customerID, Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes/" + mailboxID + "/customers/" + customerID + "/conversations.json", queryParams), Conversation.class);
+    }
+
+    public CompletableFuture<Conversation> getConversation(Long conversationID) {
+        return getItem("conversations/" + conversationID + ".json", Conversation.class);
+    }
+
+    public CompletableFuture<Conversation> getConversation(Long conversationID, List<String> fields) {
+        if (conversationID == null || conversationID < 1) {
+            return failed(new ApiException("Invalid conversationId in getConversation"));
+        }
+        return getItem(setFields("conversations/" + conversationID + ".json", fields), Conversation.class);
+    }
+
+    /**
+     * Gets the thread source, completing with null when there is none.
+     *
+     * @param conversationID
+     * @param threadID
+     * @return CompletableFuture
+     */
+    public CompletableFuture<String> getThreadSource(Long conversationID, Long threadID) {
+        if (conversationID == null || conversationID < 1) {
+            return failed(new ApiException("Invalid conversationID in getThreadSource"));
+        }
+        if (threadID == null || threadID < 1) {
+            return failed(new ApiException("Invalid threadID in getThreadSource"));
+        }
+        String url = "conversations/" + conversationID + "/thread-source/" + threadID + ".json";
+        return get(url, dataExtractor).handle((data, ex) -> {
+            if (ex == null) {
+                return new String(data);
+            }
+            if (ex.getCause() instanceof NotFoundException) {
+                return null;
+            }
+            throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+        });
+    }
+
+    public CompletableFuture<String> getAttachmentData(Long attachmentID) {
+        return getAttachmentBinaryData(attachmentID).thenApply(String::new);
+    }
+
+    public CompletableFuture<byte[]> getAttachmentBinaryData(Long attachmentID) {
+        if (attachmentID == null || attachmentID < 1) {
+            return failed(new ApiException("Invalid attachmentID in getAttachmentData"));
+        }
+        return get("attachments/" + attachmentID + "/data.json", dataExtractor);
+    }
+
+    public CompletableFuture<Page<Tag>> getTags(Map<String, String> queryParams) {
+        return getPage(setParams("tags.json", queryParams), Tag.class);
+    }
+
+    public CompletableFuture<Page<Customer>> getCustomers() {
+        return getCustomers((Integer) null);
+    }
+
+    public CompletableFuture<Page<Customer>> getCustomers(Integer page) {
+        if (page != null) {
+            return getPage("customers.json?page=" + page, Customer.class);
+        } else {
+            return getPage("customers.json", Customer.class);
+        }
+    }
+
+    public CompletableFuture<Page<Customer>> getCustomers(List<String> fields) {
+        return getPage(setFields("customers.json", fields), Customer.class);
+    }
+
+    public CompletableFuture<Page<Customer>> getCustomersForMailbox(Long mailboxId, Integer page, List<String> fields) {
+        StringBuilder sbUrl = new StringBuilder();
+        sbUrl.append("mailboxes/").append(mailboxId).append("/customers.json");
+        if (page != null) {
+            sbUrl.append("?page=").append(page);
+        }
+        return getPage(setFields(sbUrl.toString(), fields), Customer.class);
+    }
+
+    public CompletableFuture<Page<Customer>> searchCustomers(String email, String firstName, String lastName) {
+        return searchCustomers(email, firstName, lastName, null, null);
+    }
+
+    public CompletableFuture<Page<Customer>> searchCustomers(String email, String firstName, String lastName, Integer page, List<String> fields) {
+        Map<String, String> params = getCustomerSearchParams(email, firstName, lastName, page);
+        return getPage(setParams(setFields("customers.json", fields), params), Customer.class);
+    }
+
+    public CompletableFuture<Page<SearchConversation>> searchConversations(String query, String sortField, String sortOrder, Integer page) {
+        return getPage(setParams("search/conversations.json", getSearchParams(query, sortField, sortOrder, page)), SearchConversation.class);
+    }
+
+    public CompletableFuture<Page<SearchCustomer>> searchCustomers(String query, String sortField, String sortOrder, Integer page) {
+        return getPage(setParams("search/customers.json", getSearchParams(query, sortField, sortOrder, page)), SearchCustomer.class);
+    }
+
+    public CompletableFuture<Customer> getCustomer(Long customerId) {
+        return getItem("customers/" + customerId + ".json", Customer.class);
+    }
+
+    public CompletableFuture<Customer> getCustomer(Long customerId, List<String> fields) {
+        if (customerId == null || customerId < 1) {
+            return failed(new ApiException("Invalid customerId in getCustomer"));
+        }
+        return getItem(setFields("customers/" + customerId + ".json", fields), Customer.class);
+    }
+
+    public CompletableFuture<User> getUserMe() {
+        return getItem("users/me.json", User.class);
+    }
+
+    public CompletableFuture<MailboxUser> getUser(Long userID) {
+        return getItem("users/" + userID + ".json", MailboxUser.class);
+    }
+
+    public CompletableFuture<MailboxUser> getUser(Long userID, List<String> fields) {
+        return getMailboxUser(MailboxUser.class, "users", userID, fields);
+    }
+
+    public CompletableFuture<Team> getTeam(Long teamID) {
+        return getItem("teams/" + teamID + ".json", Team.class);
+    }
+
+    public CompletableFuture<Team> getTeam(Long teamID, List<String> fields) {
+        return getMailboxUser(Team.class, "teams", teamID, fields);
+    }
+
+    public CompletableFuture<Page<MailboxUser>> getUsers() {
+        return getPage("users.json", MailboxUser.class);
+    }
+
+    public CompletableFuture<Page<MailboxUser>> getUsers(List<String> fields) {
+        return getPage(setFields("users.json", fields), MailboxUser.class);
+    }
+
+    public CompletableFuture<Page<MailboxUser>> getUsers(Map<String, String> queryParams) {
+        return getPage(setParams("users.json", queryParams), MailboxUser.class);
+    }
+
+    public CompletableFuture<Page<Team>> getTeams() {
+        return getPage("teams.json", Team.class);
+    }
+
+    public CompletableFuture<Page<Team>> getTeams(List<String> fields) {
+        return getPage(setFields("teams.json", fields), Team.class);
+    }
+
+    public CompletableFuture<Page<Team>> getTeams(Map<String, String> queryParams) {
+        return getPage(setParams("teams.json", queryParams), Team.class);
+    }
+
+    public CompletableFuture<Page<User>> getTeamMembers(Long mailboxId) {
+        return getPage("teams/" + mailboxId + "/members.json", User.class);
+    }
+
+    public CompletableFuture<Page<MailboxUser>> getUsersForMailbox(Long mailboxId) {
+        return getPage("mailboxes/" + mailboxId + "/users.json", MailboxUser.class);
+    }
+
+    public CompletableFuture<Page<MailboxUser>> getUsersForMailbox(Long mailboxId, List<String> fields) {
+        return getPage(setFields("mailboxes/" + mailboxId + "/users.json", fields), MailboxUser.class);
+    }
+
+    public CompletableFuture<Page<MailboxUser>> getUsersForMailbox(Long mailboxId, Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes/" + mailboxId + "/users.json", queryParams), MailboxUser.class);
+    }
+
+    public CompletableFuture<Page<Workflow>> getWorkflows(Long mailboxId) {
+        return getPage("mailboxes/" + mailboxId + "/workflows.json", Workflow.class);
+    }
+
+    public CompletableFuture<Page<Workflow>> getWorkflows(Long mailboxId, Map<String, String> queryParams) {
+        return getPage(setParams("mailboxes/" + mailboxId + "/workflows.json", queryParams), Workflow.class);
+    }
+
+    public CompletableFuture<ConversationsReport> getConversationsReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/conversations.json", queryParams), ConversationsReport.class);
+    }
+
+    public CompletableFuture<List<DayStats>> getBusiestTimeOfDayReport(Map<String, String> queryParams) {
+        return get(setParams("reports/conversations/busy-times.json", queryParams), listExtractor(DayStats.class));
+    }
+
+    public CompletableFuture<DatesAndCounts> getNewConversationsReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/conversations/new.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getConversationsDrillDown(Map<String, String> queryParams) {
+        return getReportPage(setParams("reports/conversations/drilldown.json", queryParams));
+    }
+
+    public CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getConversationsDrillDownByField(Map<String, String> queryParams) {
+        return getReportPage(setParams("reports/conversations/fields-drilldown.json", queryParams));
+    }
+
+    public CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getNewConversationsDrillDown(Map<String, String> queryParams) {
+        return getReportPage(setParams("reports/conversations/new-drilldown.json", queryParams));
+    }
+
+    public CompletableFuture<DocsReport> getDocsReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/docs.json", queryParams), DocsReport.class);
+    }
+
+    public CompletableFuture<HappinessReport> getHappinessReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/happiness.json", queryParams), HappinessReport.class);
+    }
+
+    public CompletableFuture<Page<Rating>> getHappinessRatings(Map<String, String> queryParams) {
+        return getPage(setParams("reports/happiness/ratings.json", queryParams), Rating.class);
+    }
+
+    public CompletableFuture<ProductivityReport> getProductivityReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/productivity.json", queryParams), ProductivityReport.class);
+    }
+
+    public CompletableFuture<DatesAndElapsedTimes> getFirstResponseTimes(Map<String, String> queryParams) {
+        return getObject(setParams("reports/productivity/first-response-time.json", queryParams), DatesAndElapsedTimes.class);
+    }
+
+    public CompletableFuture<DatesAndCounts> getRepliesSent(Map<String, String> queryParams) {
+        return getObject(setParams("reports/productivity/replies-sent.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<DatesAndCounts> getResolved(Map<String, String> queryParams) {
+        return getObject(setParams("reports/productivity/resolved.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<DatesAndElapsedTimes> getResolutionTimes(Map<String, String> queryParams) {
+        return getObject(setParams("reports/productivity/resolution-time.json", queryParams), DatesAndElapsedTimes.class);
+    }
+
+    public CompletableFuture<DatesAndElapsedTimes> getResponseTime(Map<String, String> queryParams) {
+        return getObject(setParams("reports/productivity/response-time.json", queryParams), DatesAndElapsedTimes.class);
+    }
+
+    public CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getProductivityDrillDown(Map<String, String> queryParams) {
+        return getReportPage(setParams("reports/productivity/drilldown.json", queryParams));
+    }
+
+    public CompletableFuture<TeamReport> getTeamReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/team.json", queryParams), TeamReport.class);
+    }
+
+    public CompletableFuture<DatesAndCounts> getTeamCustomersHelped(Map<String, String> queryParams) {
+        return getObject(setParams("reports/team/customers-helped.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getTeamDrillDown(Map<String, String> queryParams) {
+        return getReportPage(setParams("reports/team/drilldown.json", queryParams));
+    }
+
+    public CompletableFuture<UserReport> getUserReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/user.json", queryParams), UserReport.class);
+    }
+
+    public CompletableFuture<Page<ConversationStats>> getUserConversationHistory(Map<String, String> queryParams) {
+        return getPage(setParams("reports/user/conversation-history.json", queryParams), ConversationStats.class);
+    }
+
+    public CompletableFuture<DatesAndCounts> getUserCustomersHelped(Map<String, String> queryParams) {
+        return getObject(setParams("reports/user/customers-helped.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<DatesAndCounts> getUserReplies(Map<String, String> queryParams) {
+        return getObject(setParams("reports/user/replies.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<DatesAndCounts> getUserResolutions(Map<String, String> queryParams) {
+        return getObject(setParams("reports/user/resolutions.json", queryParams), DatesAndCounts.class);
+    }
+
+    public CompletableFuture<UserHappiness> getUserHappinessReport(Map<String, String> queryParams) {
+        return getObject(setParams("reports/user/happiness.json", queryParams), UserHappiness.class);
+    }
+
+    public CompletableFuture<Page<Rating>> getUserRatings(Map<String, String> queryParams) {
+        return getPage(setParams("reports/user/ratings.json", queryParams), Rating.class);
+    }
+
+    public CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getUserDrillDown(Map<String, String> queryParams) {
+        return getReportPage(setParams("reports/user/drilldown.json", queryParams));
+    }
+
+    private <T extends MailboxUser> CompletableFuture<T> getMailboxUser(Class<T> userClass, String baseUrl, Long mailboxUserId, List<String> fields) {
+        if (mailboxUserId == null || mailboxUserId < 1) {
+            return failed(new ApiException("Invalid identifier, it must be larger than 1, but was " + mailboxUserId));
+        }
+        String url = format("{0}/{1}.json", baseUrl, mailboxUserId);
+        return getItem(setFields(url, fields), userClass);
+    }
+
+    private <T> CompletableFuture<T> getObject(String url, Class<T> clazzType) {
+        return get(url, objectExtractor(clazzType));
+    }
+
+    private <T> CompletableFuture<T> getItem(String url, Class<T> clazzType) {
+        return get(url, itemExtractor(clazzType));
+    }
+
+    private <T> CompletableFuture<Page<T>> getPage(String url, Class<T> clazzType) {
+        return get(url, pageExtractor(clazzType, null));
+    }
+
+    private CompletableFuture<Page<net.helpscout.api.model.report.conversations.Conversation>> getReportPage(String url) {
+        return get(url, pageExtractor(net.helpscout.api.model.report.conversations.Conversation.class, "conversations"));
+    }
+
+    private <T> CompletableFuture<T> get(String url, ResponseExtractor<T> extractor) {
+        return getTransport().execute(newRequest(METHOD_GET, baseUrl, apiKey, url, null))
+                .thenApplyAsync(response -> extract(response, extractor), executor);
+    }
+
+    private static <T> T extract(Response response, ResponseExtractor<T> extractor) {
+        try {
+            checkStatusCode(response, HTTP_STATUS_OK);
+            return extractor.extract(response);
+        } catch (ApiException e) {
+            throw new CompletionException(e);
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        } finally {
+            try {
+                response.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> failed(Throwable ex) {
+        CompletableFuture<T> future = new CompletableFuture<T>();
+        future.completeExceptionally(ex);
+        return future;
+    }
+}
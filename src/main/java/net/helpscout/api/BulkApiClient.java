@@ -0,0 +1,247 @@
+package net.helpscout.api;
+
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans bulk lookups out over the blocking {@link ApiClient}, one task per
+ * request. At most {@code maxConcurrency} requests are in flight at a time.
+ * If any request fails, the requests not yet finished are cancelled, waited
+ * for, and the failure is thrown from the calling method, so no task outlives
+ * the call that started it.
+ *
+ * By default tasks run on virtual threads when the JDK provides them
+ * (Java 21+), and on a cached pool of daemon threads otherwise. Concurrency
+ * above the transport's per-host connection limit only queues requests in the
+ * pool, so raise {@link net.helpscout.api.http.TransportConfig#setMaxConnectionsPerHost(int)}
+ * together with {@code maxConcurrency}.
+ */
+public class BulkApiClient implements Closeable {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    private final ApiClient client;
+    private final ExecutorService executor;
+    private final int maxConcurrency;
+    private final boolean ownsExecutor;
+
+    /**
+     * A single request of a bulk operation.
+     */
+    public interface Call<K, V> {
+        V call(K key) throws ApiException;
+    }
+
+    public BulkApiClient(ApiClient client) {
+        this(client, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    public BulkApiClient(ApiClient client, int maxConcurrency) {
+        this(client, newTaskExecutor(), maxConcurrency, true);
+    }
+
+    /**
+     * @param client
+     * @param executor runs the requests; it is not shut down by {@link #close()}
+     * @param maxConcurrency
+     */
+    public BulkApiClient(ApiClient client, ExecutorService executor, int maxConcurrency) {
+        this(client, executor, maxConcurrency, false);
+    }
+
+    private BulkApiClient(ApiClient client, ExecutorService executor, int maxConcurrency, boolean ownsExecutor) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        this.client = client;
+        this.executor = executor;
+        this.maxConcurrency = maxConcurrency;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    /**
+     * @return an executor starting a virtual thread per task when available,
+     * otherwise a cached pool of daemon threads
+     */
+    public static ExecutorService newTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            final AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread thread = new Thread(r, "helpscout-bulk-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Gets the customers with the specified ids.
+     *
+     * @param customerIds
+     * @return the customers, in the order of the ids
+     * @throws ApiException the first failure; remaining requests are cancelled
+     */
+    public List<Customer> getCustomers(Collection<Long> customerIds) throws ApiException {
+        return map(customerIds, client::getCustomer);
+    }
+
+    /**
+     * Gets the conversations with the specified ids.
+     *
+     * @param conversationIds
+     * @return the conversations, in the order of the ids
+     * @throws ApiException the first failure; remaining requests are cancelled
+     */
+    public List<Conversation> getConversations(Collection<Long> conversationIds) throws ApiException {
+        return map(conversationIds, client::getConversation);
+    }
+
+    /**
+     * Gets every page of conversations for the specified mailboxes. The first
+     * pages are fetched together, then all remaining pages of all mailboxes.
+     *
+     * @param mailboxIds
+     * @return the conversations of each mailbox, in mailbox and page order
+     * @throws ApiException the first failure; remaining requests are cancelled
+     */
+    public Map<Long, List<Conversation>> getConversationsForMailboxes(Collection<Long> mailboxIds) throws ApiException {
+        List<Page<Conversation>> firstPages = map(mailboxIds,
+                mailboxId -> client.getConversationsForMailbox(mailboxId, pageParams(1)));
+
+        Map<Long, List<Conversation>> conversations = new LinkedHashMap<Long, List<Conversation>>();
+        List<long[]> remaining = new ArrayList<long[]>();
+        Iterator<Page<Conversation>> pages = firstPages.iterator();
+        for (Long mailboxId : mailboxIds) {
+            Page<Conversation> first = pages.next();
+            conversations.put(mailboxId, new ArrayList<Conversation>(first.getItems()));
+            int pageCount = first.getPages() == null ? 1 : first.getPages();
+            for (int page = 2; page <= pageCount; page++) {
+                remaining.add(new long[] { mailboxId, page });
+            }
+        }
+
+        List<Page<Conversation>> restPages = map(remaining,
+                key -> client.getConversationsForMailbox(key[0], pageParams((int) key[1])));
+        for (int i = 0; i < remaining.size(); i++) {
+            conversations.get(remaining.get(i)[0]).addAll(restPages.get(i).getItems());
+        }
+        return conversations;
+    }
+
+    private static Map<String, String> pageParams(int page) {
+        Map<String, String> params = new HashMap<String, String>();
+        params.put("page", String.valueOf(page));
+        return params;
+    }
+
+    /**
+     * Runs {@code call} for every key, at most {@code maxConcurrency} at a
+     * time, and waits for all of them. On the first failure no further calls
+     * are started, calls in flight are cancelled (their threads interrupted)
+     * and the failure is thrown once they have returned. A call blocked in
+     * socket I/O ignores the interrupt, so this may take up to the read
+     * timeout.
+     *
+     * @param keys
+     * @param call
+     * @return the results, in the order of the keys
+     * @throws ApiException the first failure
+     */
+    public <K, V> List<V> map(Collection<K> keys, final Call<K, V> call) throws ApiException {
+        final Semaphore permits = new Semaphore(maxConcurrency);
+        // the calling thread plus every call running
+        final Phaser running = new Phaser(1);
+        final AtomicBoolean aborted = new AtomicBoolean();
+        CompletionService<V> completion = new ExecutorCompletionService<V>(executor);
+        List<Future<V>> futures = new ArrayList<Future<V>>(keys.size());
+        boolean completed = false;
+        try {
+            int done = 0;
+            for (final K key : keys) {
+                permits.acquire();
+                done += drain(completion);
+                futures.add(completion.submit(() -> {
+                    running.register();
+                    try {
+                        return aborted.get() ? null : call.call(key);
+                    } finally {
+                        permits.release();
+                        running.arriveAndDeregister();
+                    }
+                }));
+            }
+            for (; done < futures.size(); done++) {
+                completion.take().get();
+            }
+
+            List<V> results = new ArrayList<V>(futures.size());
+            for (Future<V> future : futures) {
+                results.add(future.get());
+            }
+            completed = true;
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for bulk requests");
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } finally {
+            if (!completed) {
+                aborted.set(true);
+                for (Future<V> future : futures) {
+                    future.cancel(true);
+                }
+                // a call registering from now on sees the abort and returns at once
+                running.arriveAndAwaitAdvance();
+            }
+        }
+    }
+
+    /**
+     * Collects the calls finished so far, so a failure stops the submission
+     * loop before the remaining keys are started.
+     */
+    private static <V> int drain(CompletionService<V> completion) throws InterruptedException, ExecutionException {
+        int done = 0;
+        Future<V> future;
+        while ((future = completion.poll()) != null) {
+            future.get();
+            done++;
+        }
+        return done;
+    }
+
+    private static ApiException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof ApiException) {
+            return (ApiException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ApiException(String.valueOf(cause));
+    }
+
+    /**
+     * Shuts down the executor if it was created by this client.
+     */
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+}
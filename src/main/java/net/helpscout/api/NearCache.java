@@ -0,0 +1,86 @@
+package net.helpscout.api;
+
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps customers and conversations read through {@link #getCustomer(Long)}
+ * and {@link #getConversation(Long)} in memory, and keeps them current from
+ * webhooks rather than by expiring them quickly: pass the cache to
+ * {@link Webhook#Webhook(String, javax.servlet.http.HttpServletRequest, WebhookListener)}
+ * and every {@code customer.*} or {@code convo.*} payload read from a verified
+ * webhook replaces the cached object with the same id, while
+ * {@code *.deleted} events drop it.
+ *
+ * Entries still expire after {@code ttlMillis} in case a webhook is missed.
+ * Cached objects are shared between callers and must not be modified.
+ */
+public class NearCache implements WebhookListener {
+
+    public static final long DEFAULT_TTL = TimeUnit.HOURS.toMillis(1);
+    public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+    private static final String DELETED_SUFFIX = ".deleted";
+
+    private final RefreshingCache<Long, Customer> customers;
+    private final RefreshingCache<Long, Conversation> conversations;
+
+    public NearCache(ApiClient client) {
+        this(client, DEFAULT_TTL, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param client
+     * @param ttlMillis time after which an entry not updated by a webhook is
+     * reloaded
+     * @param maxEntries bound of each of the customer and conversation caches
+     */
+    public NearCache(ApiClient client, long ttlMillis, int maxEntries) {
+        customers = new RefreshingCache<Long, Customer>("customer", client::getCustomer,
+                ttlMillis, 1, maxEntries, Runnable::run);
+        conversations = new RefreshingCache<Long, Conversation>("conversation", client::getConversation,
+                ttlMillis, 1, maxEntries, Runnable::run);
+    }
+
+    public Customer getCustomer(Long customerId) throws ApiException {
+        return customers.get(customerId);
+    }
+
+    public Conversation getConversation(Long conversationId) throws ApiException {
+        return conversations.get(conversationId);
+    }
+
+    @Override
+    public void onConversation(String eventType, Conversation conversation) {
+        if (conversation == null || conversation.getId() == null) {
+            return;
+        }
+        if (eventType != null && eventType.endsWith(DELETED_SUFFIX)) {
+            conversations.invalidate(conversation.getId());
+        } else {
+            conversations.put(conversation.getId(), conversation);
+        }
+    }
+
+    @Override
+    public void onCustomer(String eventType, Customer customer) {
+        if (customer == null || customer.getId() == null) {
+            return;
+        }
+        if (eventType != null && eventType.endsWith(DELETED_SUFFIX)) {
+            customers.invalidate(customer.getId());
+        } else {
+            customers.put(customer.getId(), customer);
+        }
+    }
+
+    public void invalidateCustomer(Long customerId) {
+        customers.invalidate(customerId);
+    }
+
+    public void invalidateConversation(Long conversationId) {
+        conversations.invalidate(conversationId);
+    }
+}
@@ -0,0 +1,15 @@
+package net.helpscout.api;
+
+import java.util.Map;
+
+/**
+ * Fetches one page of a paged endpoint. The query parameters passed in
+ * already carry the {@code page} number, so most {@link ApiClient} methods
+ * taking a query parameter map can be used directly, e.g.
+ * {@code client::getHappinessRatings} or
+ * {@code params -> client.getConversationsForMailbox(mailboxId, params)}.
+ */
+public interface PageFetcher<T> {
+
+    Page<T> fetch(Map<String, String> queryParams) throws ApiException;
+}
@@ -0,0 +1,251 @@
+package net.helpscout.api;
+
+import java.io.Closeable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Iterates over the items of every page of a paged endpoint, e.g.
+ *
+ * <pre>
+ * new PageIterator&lt;Conversation&gt;(params -&gt; client.getConversationsForMailbox(mailboxId, params), null, 2)
+ *         .stream()
+ *         .forEach(...);
+ * </pre>
+ *
+ * The first page is fetched when iteration starts, and tells how many pages
+ * there are. Without prefetch, each following page is fetched once the items
+ * of the previous one are consumed. With prefetch, up to
+ * {@link PagingConfig#getPrefetch()} following pages are requested in the
+ * background while the current page is processed, at most
+ * {@link PagingConfig#getConcurrency()} at once and no faster than
+ * {@link PagingConfig#getMaxRequestsPerSecond()}.
+ *
+ * Failures are thrown from {@link #hasNext()} as {@link UncheckedApiException}.
+ * Not thread-safe.
+ */
+public class PageIterator<T> implements Iterator<T>, Closeable {
+
+    private static final Executor PREFETCH_EXECUTOR = BulkApiClient.newTaskExecutor();
+
+    private final PageFetcher<T> fetcher;
+    private final Map<String, String> queryParams;
+    private final PagingConfig config;
+    private final Executor executor;
+    private final long requestIntervalNanos;
+
+    private final Deque<CompletableFuture<Page<T>>> ahead = new ArrayDeque<CompletableFuture<Page<T>>>();
+    private final Deque<CompletableFuture<Page<T>>> lanes = new ArrayDeque<CompletableFuture<Page<T>>>();
+    private final BlockingQueue<CompletableFuture<Page<T>>> arrived = new LinkedBlockingQueue<CompletableFuture<Page<T>>>();
+    private final AtomicLong nextRequestAt = new AtomicLong(System.nanoTime());
+    private Iterator<T> current = Collections.<T>emptyIterator();
+    private int scheduledPage = 1;
+    private Integer pages;
+
+    public PageIterator(PageFetcher<T> fetcher) {
+        this(fetcher, null);
+    }
+
+    /**
+     * @param fetcher
+     * @param queryParams sent with every page request; may be null
+     */
+    public PageIterator(PageFetcher<T> fetcher, Map<String, String> queryParams) {
+        this(fetcher, queryParams, 0);
+    }
+
+    /**
+     * @param fetcher
+     * @param queryParams sent with every page request; may be null
+     * @param prefetch number of pages to fetch ahead in the background
+     */
+    public PageIterator(PageFetcher<T> fetcher, Map<String, String> queryParams, int prefetch) {
+        this(fetcher, queryParams, prefetch, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * @param fetcher
+     * @param queryParams sent with every page request; may be null
+     * @param prefetch number of pages to fetch ahead in the background
+     * @param executor runs the background fetches
+     */
+    public PageIterator(PageFetcher<T> fetcher, Map<String, String> queryParams, int prefetch, Executor executor) {
+        this(fetcher, queryParams, prefetchConfig(prefetch), executor);
+    }
+
+    /**
+     * @param fetcher
+     * @param queryParams sent with every page request; may be null
+     * @param config
+     */
+    public PageIterator(PageFetcher<T> fetcher, Map<String, String> queryParams, PagingConfig config) {
+        this(fetcher, queryParams, config, PREFETCH_EXECUTOR);
+    }
+
+    /**
+     * @param fetcher
+     * @param queryParams sent with every page request; may be null
+     * @param config
+     * @param executor runs the background fetches
+     */
+    public PageIterator(PageFetcher<T> fetcher, Map<String, String> queryParams, PagingConfig config, Executor executor) {
+        if (config.getPrefetch() < 0) {
+            throw new IllegalArgumentException("prefetch must not be negative");
+        }
+        if (config.getConcurrency() < 1) {
+            throw new IllegalArgumentException("concurrency must be positive");
+        }
+        if (config.getMaxRequestsPerSecond() < 0) {
+            throw new IllegalArgumentException("maxRequestsPerSecond must not be negative");
+        }
+        this.fetcher = fetcher;
+        this.queryParams = queryParams;
+        this.config = config;
+        this.executor = executor;
+        this.requestIntervalNanos = config.getMaxRequestsPerSecond() == 0
+                ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / config.getMaxRequestsPerSecond());
+    }
+
+    private static PagingConfig prefetchConfig(int prefetch) {
+        PagingConfig config = new PagingConfig();
+        config.setPrefetch(prefetch);
+        return config;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!current.hasNext()) {
+            if (pages != null && scheduledPage > pages && ahead.isEmpty()) {
+                return false;
+            }
+            Page<T> page = take();
+            if (pages == null || config.isOrdered()) {
+                pages = page.getPages() == null ? 1 : page.getPages();
+            }
+            current = page.getItems() == null ? Collections.<T>emptyIterator() : page.getItems().iterator();
+            schedule();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return current.next();
+    }
+
+    /**
+     * @return the remaining items; closing the stream cancels pages not yet
+     * fetched
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false).onClose(this::close);
+    }
+
+    public Spliterator<T> spliterator() {
+        int characteristics = Spliterator.NONNULL | (config.isOrdered() ? Spliterator.ORDERED : 0);
+        return Spliterators.spliteratorUnknownSize(this, characteristics);
+    }
+
+    /**
+     * Cancels the pages scheduled in the background. Requests already in
+     * flight run to completion, their results are discarded.
+     */
+    @Override
+    public void close() {
+        for (CompletableFuture<Page<T>> page : ahead) {
+            page.cancel(false);
+        }
+        ahead.clear();
+        lanes.clear();
+        arrived.clear();
+        pages = 0;
+        current = Collections.<T>emptyIterator();
+    }
+
+    private Page<T> take() {
+        if (ahead.isEmpty()) {
+            return fetch(scheduledPage++);
+        }
+        CompletableFuture<Page<T>> next;
+        if (config.isOrdered()) {
+            next = ahead.poll();
+        } else {
+            try {
+                next = arrived.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new UncheckedApiException(new ApiException("Interrupted while waiting for a page"));
+            }
+            ahead.remove(next);
+        }
+        try {
+            return next.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Fills the prefetch window. Each page starts once the page scheduled
+     * {@code concurrency} places before it has completed, so at most that
+     * many requests are in flight.
+     */
+    private void schedule() {
+        while (ahead.size() < config.getPrefetch() && scheduledPage <= pages) {
+            final int page = scheduledPage++;
+            CompletableFuture<Page<T>> previous = lanes.size() < config.getConcurrency()
+                    ? CompletableFuture.<Page<T>>completedFuture(null)
+                    : lanes.poll();
+            final CompletableFuture<Page<T>> future = previous.handleAsync((result, failure) -> fetch(page), executor);
+            if (!config.isOrdered()) {
+                future.whenComplete((result, failure) -> arrived.add(future));
+            }
+            lanes.add(future);
+            ahead.add(future);
+        }
+    }
+
+    private Page<T> fetch(int page) {
+        Map<String, String> params = queryParams == null
+                ? new HashMap<String, String>()
+                : new HashMap<String, String>(queryParams);
+        params.put("page", String.valueOf(page));
+        try {
+            pace();
+            return fetcher.fetch(params);
+        } catch (ApiException e) {
+            throw new UncheckedApiException(e);
+        }
+    }
+
+    /**
+     * Reserves the next request slot and sleeps until it is due.
+     */
+    private void pace() throws ApiException {
+        if (requestIntervalNanos == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long slot;
+        long reserved;
+        do {
+            reserved = nextRequestAt.get();
+            slot = Math.max(reserved, now);
+        } while (!nextRequestAt.compareAndSet(reserved, slot + requestIntervalNanos));
+        try {
+            TimeUnit.NANOSECONDS.sleep(slot - now);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for a request slot");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.helpscout.api;
+
+import lombok.Data;
+
+/**
+ * Background fetch settings for {@link PageIterator}.
+ *
+ * {@code prefetch} is the number of pages requested ahead of the page being
+ * consumed, {@code concurrency} how many of those may be in flight at once and
+ * {@code maxRequestsPerSecond} caps the rate they are issued at (0 means no
+ * cap). When {@code ordered} is false, items are yielded page by page in the
+ * order the pages arrive rather than in page order.
+ */
+@Data
+public class PagingConfig {
+
+    private int prefetch = 0;
+    private int concurrency = 1;
+    private double maxRequestsPerSecond = 0;
+    private boolean ordered = true;
+}
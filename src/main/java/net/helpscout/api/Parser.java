@@ -1,68 +1,127 @@
 package net.helpscout.api;
 
-import java.util.Date;
-import com.google.gson.GsonBuilder;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
+import com.google.gson.JsonParseException;
 
-import net.helpscout.api.adapters.*;
-import net.helpscout.api.cbo.*;
+import net.helpscout.api.json.GsonCodec;
+import net.helpscout.api.json.JsonCodec;
 import net.helpscout.api.model.Conversation;
 import net.helpscout.api.model.Customer;
-import net.helpscout.api.model.customfield.CustomFieldResponse;
-import net.helpscout.api.model.ref.PersonRef;
-import net.helpscout.api.model.report.common.DateAndCount;
-import net.helpscout.api.model.thread.LineItem;
 
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decodes API responses and webhook payloads with the {@link JsonCodec} in
+ * use: the first one registered as a service, otherwise {@link GsonCodec}.
+ */
 public final class Parser {
-    private final GsonBuilder builder;
+    private final Gson gson;
+    private volatile JsonCodec codec;
 
-    private static Parser instance = null;
+    private static final Parser instance = new Parser();
 
     private Parser() {
-        builder = new GsonBuilder();
-        builder.registerTypeAdapter(ConversationType.class, new ConversationTypeAdapter());
-        builder.registerTypeAdapter(ThreadType.class, new ThreadTypeAdapter());
-        builder.registerTypeAdapter(ThreadState.class, new ThreadStateAdapter());
-        builder.registerTypeAdapter(Status.class, new StatusAdapter());
-        builder.registerTypeAdapter(ActionType.class, new ActionTypeAdapter());
-        builder.registerTypeAdapter(Date.class, new DateAdapter());
-        builder.registerTypeAdapter(WorkflowStatus.class, new WorkflowStatusAdapter());
-        builder.registerTypeAdapter(WorkflowType.class, new WorkflowTypeAdapter());
-        builder.registerTypeAdapter(PersonRef.class, new PersonRefAdapter(builder));
-        builder.registerTypeAdapter(LineItem.class, new ThreadsAdapater(builder));
-        builder.registerTypeAdapter(DateAndCount.class, new DateAndCountDeserializer(builder));
-        builder.registerTypeAdapter(CustomFieldResponse.class, new CustomFieldResponseAdapter());
+        GsonCodec gsonCodec = new GsonCodec();
+        gson = gsonCodec.getGson();
+        codec = loadCodec(gsonCodec);
     }
 
-    public synchronized static Parser getInstance() {
-        if (instance == null) {
-            instance = new Parser();
+    /**
+     * A broken service registration must not fail the class initialization,
+     * which would leave the whole client unusable.
+     */
+    private static JsonCodec loadCodec(JsonCodec fallback) {
+        try {
+            Iterator<JsonCodec> codecs = ServiceLoader.load(JsonCodec.class, Parser.class.getClassLoader()).iterator();
+            return codecs.hasNext() ? codecs.next() : fallback;
+        } catch (ServiceConfigurationError e) {
+            LoggerFactory.getLogger(Parser.class).warn("cannot load the registered JSON codec, using Gson", e);
+            return fallback;
         }
+    }
+
+    public static Parser getInstance() {
         return instance;
     }
 
+    public JsonCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Replaces the engine decoding every response and webhook from then on.
+     *
+     * @param codec
+     */
+    public void setCodec(JsonCodec codec) {
+        if (codec == null) {
+            throw new IllegalArgumentException("codec must not be null");
+        }
+        this.codec = codec;
+    }
+
     public Conversation getConversation(String json) {
-        JsonElement obj  = (new JsonParser()).parse(json);
-        return getObject(obj, Conversation.class);
+        return getObject(json, Conversation.class);
     }
 
     public Customer getCustomer(String json) {
-        JsonElement obj  = (new JsonParser()).parse(json);
-        return getObject(obj, Customer.class);
+        return getObject(json, Customer.class);
     }
-    
+
     public <T> T getObject(String json, Class<T> clazzType) {
-        JsonElement obj  = new JsonParser().parse(json);
-        return getObject(obj, clazzType);
+        try {
+            return codec.read(new StringReader(json), clazzType);
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
     }
 
+    /**
+     * Binds a tree with Gson, whatever the codec in use.
+     */
     public <T> T getObject(JsonElement item, Class<T> clazzType) {
-        JsonThreadLocal.set(item);
-        try {
-            return builder.create().fromJson(item, clazzType);
-        } finally {
-            JsonThreadLocal.unset();
-        }
+        return gson.fromJson(item, clazzType);
+    }
+
+    public <T> T getObject(Reader json, Class<T> clazzType) throws IOException {
+        return codec.read(json, clazzType);
+    }
+
+    /**
+     * @param json a response whose {@code item} property holds the object
+     * @param clazzType
+     * @return the item, or null if there is none
+     * @throws IOException
+     */
+    public <T> T getItem(Reader json, Class<T> clazzType) throws IOException {
+        return codec.readItem(json, clazzType);
+    }
+
+    public <T> List<T> getList(Reader json, Class<T> clazzType) throws IOException {
+        return codec.readList(json, clazzType);
+    }
+
+    /**
+     * Reads a page straight from the response stream. Only the item being
+     * decoded is held in memory, the rest of the page is never materialized.
+     *
+     * @param json the page body
+     * @param clazzType the type of the page items
+     * @param wrapperObjectName the name of the property holding the page, or
+     *                          null when the page is the top level object
+     * @return Page
+     * @throws IOException
+     */
+    public <T> Page<T> getPage(Reader json, Class<T> clazzType, String wrapperObjectName) throws IOException {
+        return codec.readPage(json, clazzType, wrapperObjectName);
     }
 }
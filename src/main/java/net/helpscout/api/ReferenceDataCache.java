@@ -0,0 +1,99 @@
+package net.helpscout.api;
+
+import net.helpscout.api.model.Folder;
+import net.helpscout.api.model.Mailbox;
+import net.helpscout.api.model.MailboxUser;
+import net.helpscout.api.model.Team;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/**
+ * Read-through cache of the reference data looked up on most events:
+ * mailboxes, their folders, users and teams. Each type has its own time to
+ * live and is refreshed in the background before it expires, so lookups of
+ * entries in use are served from memory (see {@link RefreshingCache}).
+ *
+ * Cached objects are shared between callers and must not be modified.
+ */
+public class ReferenceDataCache {
+
+    private static final Executor REFRESH_EXECUTOR = BulkApiClient.newTaskExecutor();
+
+    private final RefreshingCache<Long, Mailbox> mailboxes;
+    private final RefreshingCache<Long, List<Folder>> folders;
+    private final RefreshingCache<Long, MailboxUser> users;
+    private final RefreshingCache<Long, Team> teams;
+
+    public ReferenceDataCache(ApiClient client) {
+        this(client, new ReferenceDataCacheConfig());
+    }
+
+    public ReferenceDataCache(ApiClient client, ReferenceDataCacheConfig config) {
+        this(client, config, REFRESH_EXECUTOR);
+    }
+
+    /**
+     * @param client
+     * @param config
+     * @param executor runs background refreshes
+     */
+    public ReferenceDataCache(final ApiClient client, ReferenceDataCacheConfig config, Executor executor) {
+        double ratio = config.getRefreshAheadRatio();
+        int maxEntries = config.getMaxEntries();
+        mailboxes = new RefreshingCache<Long, Mailbox>("mailbox", client::getMailbox,
+                config.getMailboxTtl(), ratio, maxEntries, executor);
+        folders = new RefreshingCache<Long, List<Folder>>("folders", mailboxId -> loadFolders(client, mailboxId),
+                config.getFolderTtl(), ratio, maxEntries, executor);
+        users = new RefreshingCache<Long, MailboxUser>("user", client::getUser,
+                config.getUserTtl(), ratio, maxEntries, executor);
+        teams = new RefreshingCache<Long, Team>("team", client::getTeam,
+                config.getTeamTtl(), ratio, maxEntries, executor);
+    }
+
+    private static List<Folder> loadFolders(ApiClient client, Long mailboxId) throws ApiException {
+        List<Folder> result = new ArrayList<Folder>();
+        PageIterator<Folder> pages = new PageIterator<Folder>(params -> client.getFolders(mailboxId, params));
+        try {
+            while (pages.hasNext()) {
+                result.add(pages.next());
+            }
+        } catch (UncheckedApiException e) {
+            throw e.getCause();
+        }
+        return Collections.unmodifiableList(result);
+    }
+
+    public Mailbox getMailbox(Long mailboxId) throws ApiException {
+        return mailboxes.get(mailboxId);
+    }
+
+    /**
+     * @param mailboxId
+     * @return all folders of the mailbox
+     * @throws ApiException
+     */
+    public List<Folder> getFolders(Long mailboxId) throws ApiException {
+        return folders.get(mailboxId);
+    }
+
+    public MailboxUser getUser(Long userId) throws ApiException {
+        return users.get(userId);
+    }
+
+    public Team getTeam(Long teamId) throws ApiException {
+        return teams.get(teamId);
+    }
+
+    /**
+     * Drops every cached entry, so the next lookups go to the API.
+     */
+    public void clear() {
+        mailboxes.clear();
+        folders.clear();
+        users.clear();
+        teams.clear();
+    }
+}
@@ -0,0 +1,18 @@
+package net.helpscout.api;
+
+import lombok.Data;
+
+/**
+ * Settings for {@link ReferenceDataCache}. Times to live are in milliseconds;
+ * {@code maxEntries} bounds each type separately.
+ */
+@Data
+public class ReferenceDataCacheConfig {
+
+    private long mailboxTtl = 600000;
+    private long folderTtl = 300000;
+    private long userTtl = 600000;
+    private long teamTtl = 600000;
+    private double refreshAheadRatio = 0.8;
+    private int maxEntries = 1000;
+}
@@ -0,0 +1,204 @@
+package net.helpscout.api;
+
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded in-memory cache whose entries expire after a fixed time to live.
+ *
+ * Reads of a fresh entry are a single map lookup. Once an entry has lived
+ * for the refresh-ahead part of its time to live, the first read schedules a
+ * reload on the executor and keeps returning the current value until the
+ * reload replaces it, so readers of entries in use never wait for the API.
+ * Only a miss, or an entry left unread until it expired, is loaded on the
+ * reading thread; concurrent loads of the same key share one request. A
+ * failed reload, or one the executor refuses, is retried no sooner than a
+ * quarter of the refresh-ahead part later, so an outage does not turn every
+ * read into a request. A load
+ * is only kept if the key was neither put nor invalidated while it was in
+ * flight, so a value pushed in the meantime is never replaced by an older one.
+ *
+ * When full, the entry loaded longest ago is evicted. Writes keep the keys
+ * in load order under a lock, so eviction takes constant time; reads do not
+ * lock.
+ */
+class RefreshingCache<K, V> {
+
+    interface Loader<K, V> {
+        V load(K key) throws ApiException;
+    }
+
+    private final String name;
+    private final Loader<K, V> loader;
+    private final long ttl;
+    private final long refreshAfter;
+    private final int maxEntries;
+    private final Executor executor;
+    private final ConcurrentMap<K, Entry<V>> entries = new ConcurrentHashMap<K, Entry<V>>();
+    /** Entries from the oldest load to the latest, guarded by itself. */
+    private final LinkedHashMap<K, Entry<V>> loadOrder = new LinkedHashMap<K, Entry<V>>();
+    /** Misses being loaded, flagged when the key is written meanwhile; guarded by loadOrder. */
+    private final Map<K, AtomicBoolean> loading = new HashMap<K, AtomicBoolean>();
+    private final SingleFlight loads = new SingleFlight();
+
+    /**
+     * @param name distinguishes the keys of this cache in logs
+     * @param loader
+     * @param ttlMillis time to live of an entry
+     * @param refreshAheadRatio part of the time to live after which an entry
+     * is reloaded in the background
+     * @param maxEntries
+     * @param executor runs background reloads
+     */
+    RefreshingCache(String name, Loader<K, V> loader, long ttlMillis, double refreshAheadRatio,
+                    int maxEntries, Executor executor) {
+        this.name = name;
+        this.loader = loader;
+        this.ttl = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.refreshAfter = (long) (ttl * refreshAheadRatio);
+        this.maxEntries = maxEntries;
+        this.executor = executor;
+    }
+
+    V get(final K key) throws ApiException {
+        Entry<V> entry = entries.get(key);
+        long age = entry == null ? 0 : System.nanoTime() - entry.loadedAt;
+        if (entry == null || age >= ttl) {
+            return loads.execute(name + ":" + key, () -> load(key, entry));
+        }
+        if (age >= refreshAfter && System.nanoTime() >= entry.retryAt
+                && entry.refreshing.compareAndSet(false, true)) {
+            refresh(key, entry);
+        }
+        return entry.value;
+    }
+
+    private V load(K key, Entry<V> expired) throws ApiException {
+        AtomicBoolean written = new AtomicBoolean();
+        Entry<V> current;
+        synchronized (loadOrder) {
+            current = entries.get(key);
+            if (current != null && current != expired) {
+                // put while this thread was getting to the load
+                return current.value;
+            }
+            loading.put(key, written);
+        }
+        try {
+            V value = loader.load(key);
+            synchronized (loadOrder) {
+                if (!written.get() && entries.get(key) == current) {
+                    store(key, new Entry<V>(value));
+                }
+            }
+            return value;
+        } finally {
+            synchronized (loadOrder) {
+                loading.remove(key, written);
+            }
+        }
+    }
+
+    V put(K key, V value) {
+        synchronized (loadOrder) {
+            written(key);
+            store(key, new Entry<V>(value));
+        }
+        return value;
+    }
+
+    void invalidate(K key) {
+        synchronized (loadOrder) {
+            written(key);
+            entries.remove(key);
+            loadOrder.remove(key);
+        }
+    }
+
+    void clear() {
+        synchronized (loadOrder) {
+            for (AtomicBoolean written : loading.values()) {
+                written.set(true);
+            }
+            entries.clear();
+            loadOrder.clear();
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void refresh(final K key, final Entry<V> entry) {
+        try {
+            executor.execute(() -> {
+                try {
+                    V value = loader.load(key);
+                    synchronized (loadOrder) {
+                        if (entries.get(key) == entry) {
+                            store(key, new Entry<V>(value));
+                            return;
+                        }
+                    }
+                } catch (Exception e) {
+                    LoggerFactory.getLogger(RefreshingCache.class).debug("refresh of {}:{} failed: {}", new Object[] { name, key, e });
+                }
+                retryLater(entry);
+            });
+        } catch (RejectedExecutionException e) {
+            LoggerFactory.getLogger(RefreshingCache.class).debug("refresh of {}:{} rejected", name, key);
+            retryLater(entry);
+        }
+    }
+
+    private void retryLater(Entry<V> entry) {
+        entry.retryAt = System.nanoTime() + (ttl - refreshAfter) / 4;
+        entry.refreshing.set(false);
+    }
+
+    /**
+     * Called holding the lock.
+     */
+    private void written(K key) {
+        AtomicBoolean written = loading.get(key);
+        if (written != null) {
+            written.set(true);
+        }
+    }
+
+    /**
+     * Called holding the lock. Moves the key to the newest end of the load
+     * order and evicts from the oldest end.
+     */
+    private void store(K key, Entry<V> entry) {
+        loadOrder.remove(key);
+        loadOrder.put(key, entry);
+        entries.put(key, entry);
+        if (loadOrder.size() > maxEntries) {
+            Iterator<K> oldest = loadOrder.keySet().iterator();
+            entries.remove(oldest.next());
+            oldest.remove();
+        }
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long loadedAt = System.nanoTime();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long retryAt = loadedAt;
+
+        private Entry(V value) {
+            this.value = value;
+        }
+    }
+}
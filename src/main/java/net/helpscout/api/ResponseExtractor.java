@@ -0,0 +1,12 @@
+package net.helpscout.api;
+
+import net.helpscout.api.http.Response;
+
+/**
+ * Reads the result of a call from the transport response.
+ */
+interface ResponseExtractor<T> {
+
+    T extract(Response response);
+
+}
@@ -2,6 +2,12 @@ package net.helpscout.api;
 
 import java.net.HttpURLConnection;
 
+/**
+ * @deprecated the client no longer reads responses from an
+ * {@link HttpURLConnection} but through a {@link net.helpscout.api.http.Transport},
+ * so it does not call extractors of this type; kept for compatibility
+ */
+@Deprecated
 public interface ResultExtractor<T> {
 
     T extract(HttpURLConnection conn);
@@ -0,0 +1,59 @@
+package net.helpscout.api;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Collapses concurrent calls for the same key into one. The first caller runs
+ * the call; callers arriving while it is in flight wait for it and receive
+ * the same result, or the same exception. Once the call completes the key is
+ * released, so later callers start a fresh call.
+ */
+class SingleFlight {
+
+    interface Call<T> {
+        T call() throws ApiException;
+    }
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight =
+            new ConcurrentHashMap<String, CompletableFuture<Object>>();
+
+    @SuppressWarnings("unchecked")
+    <T> T execute(String key, Call<T> call) throws ApiException {
+        CompletableFuture<Object> flight = new CompletableFuture<Object>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, flight);
+        if (leader != null) {
+            return (T) await(leader);
+        }
+        try {
+            T result = call.call();
+            flight.complete(result);
+            return result;
+        } catch (ApiException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> flight) throws ApiException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ApiException("Interrupted while waiting for a coalesced request");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ApiException) {
+                throw (ApiException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+}
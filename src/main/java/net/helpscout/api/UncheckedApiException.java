@@ -0,0 +1,18 @@
+package net.helpscout.api;
+
+/**
+ * Wraps an {@link ApiException} thrown where checked exceptions cannot be,
+ * such as from an {@link java.util.Iterator} or a {@link java.util.stream.Stream}.
+ */
+public class UncheckedApiException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public UncheckedApiException(ApiException cause) {
+        super(cause.getMessage(), cause);
+    }
+
+    @Override
+    public synchronized ApiException getCause() {
+        return (ApiException) super.getCause();
+    }
+}
@@ -1,25 +1,45 @@
 package net.helpscout.api;
 
-import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 
 import javax.crypto.Mac;
-import javax.crypto.spec.SecretKeySpec;
 import javax.servlet.http.HttpServletRequest;
 
 import net.helpscout.api.model.Conversation;
 import net.helpscout.api.model.Customer;
-
-import org.apache.commons.codec.binary.Base64;
+import net.helpscout.api.webhook.WebhookEventType;
+import net.helpscout.api.webhook.WebhookSigner;
 
 final public class Webhook {        
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 4096;
+
     private final String secretKey; 
     private final HttpServletRequest request;
+    private final WebhookListener listener;
             
+    private byte[] body = null;
     private String inputStr = null;
+    private Boolean valid = null;
+    private WebhookEventType type = null;
     
     public Webhook(final String secretKey, final HttpServletRequest request) {
+        this(secretKey, request, null);
+    }
+
+    /**
+     * @param secretKey
+     * @param request
+     * @param listener receives the conversation or customer parsed by
+     * {@link #getConversation()} or {@link #getCustomer()}, if the request is
+     * valid
+     */
+    public Webhook(final String secretKey, final HttpServletRequest request, final WebhookListener listener) {
         this.secretKey = secretKey;
         this.request   = request;
+        this.listener  = listener;
     }
     
     private String getHeader(String headerName) {
@@ -31,19 +51,38 @@ final public class Webhook {
      * @return string
      */
     public String getEventType() {
-        return this.getHeader("X-HELPSCOUT-EVENT");
+        return this.getHeader(WebhookSigner.EVENT_HEADER);
     }   
         
+    /**
+     * @return value of the X-HELPSCOUT-SIGNATURE header, identical for every
+     * retry of a delivery
+     */
+    public String getSignature() {
+        return this.getHeader(WebhookSigner.SIGNATURE_HEADER);
+    }
+
+    /**
+     * Get the event type, looked up once
+     * @return the type, or null if the event type is unknown
+     */
+    public WebhookEventType getType() {
+        if (type == null) {
+            type = WebhookEventType.findByLabel(this.getEventType());
+        }
+        return type;
+    }
+
     public boolean isTestEvent() {
-        return "helpscout.test".equals(this.getEventType());        
+        return getType() == WebhookEventType.Test;
     }
 
-    private boolean isEventTypeOf(String eventType) {
+    /**
+     * Event types this library does not know yet are matched on their prefix.
+     */
+    private boolean isEventTypeOf(String prefix) {
         String event = this.getEventType();
-        if (event != null) {
-            return event.substring(0, eventType.length()).equals(eventType);            
-        }
-        return false;
+        return event != null && event.startsWith(prefix);
     }
     
     /**
@@ -51,7 +90,8 @@ final public class Webhook {
      * @return boolean
      */
     public boolean isConversationEvent() {
-        return this.isEventTypeOf("convo");
+        WebhookEventType type = getType();
+        return type != null ? type.isConversationEvent() : this.isEventTypeOf("convo.");
     }
 
     /**
@@ -59,7 +99,8 @@ final public class Webhook {
      * @return boolean
      */
     public boolean isCustomerEvent() {
-        return this.isEventTypeOf("customer");
+        WebhookEventType type = getType();
+        return type != null ? type.isCustomerEvent() : this.isEventTypeOf("customer.");
     }
 
     /**
@@ -67,32 +108,28 @@ final public class Webhook {
      * @return boolean
      */
     public boolean isValid() {
-        String computed = generateSignature();
-        
-        if (computed != null) {
-            return computed.equals(getHeader("X-HELPSCOUT-SIGNATURE"));
+        if (valid == null) {
+            valid = WebhookSigner.matches(generateSignature(), getSignature());
         }
-        return false;
+        return valid;
     }
 
-    private String generateSignature() {
-        String computed = null;     
-        String json     = getJsonString();
-        
-        if (json != null) {
-            try {
-                Mac mac = Mac.getInstance("HmacSHA1");
-                            
-                mac.init(new SecretKeySpec(secretKey.getBytes(),"HmacSHA1"));
-                
-                byte[] digest = json.getBytes();
-    
-                computed = new String(Base64.encodeBase64(mac.doFinal(digest))).trim();         
-            } catch (Exception e) {
-                // ignore
+    /**
+     * Streams the body through the HMAC while reading it, or signs the
+     * bytes already read. The key is re-initialized only when it differs
+     * from the one the thread's Mac was last used with.
+     */
+    private byte[] generateSignature() {
+        try {
+            Mac mac = WebhookSigner.mac(secretKey);
+            if (body == null) {
+                body = readBody(mac);
+                return body != null ? mac.doFinal() : null;
             }
-        }       
-        return computed;
+            return mac.doFinal(body);
+        } catch (Exception e) {
+            return null;
+        }
     }
 
     /**
@@ -101,7 +138,11 @@ final public class Webhook {
     public Conversation getConversation() {
         String json = getJsonString();      
         if (json != null) {
-            return Parser.getInstance().getConversation(json);          
+            Conversation conversation = Parser.getInstance().getConversation(json);
+            if (listener != null && isConversationEvent() && isValid()) {
+                listener.onConversation(getEventType(), conversation);
+            }
+            return conversation;
         }
         return null;
     }
@@ -113,32 +154,59 @@ final public class Webhook {
     public Customer getCustomer() {
         String json = getJsonString();      
         if (json != null) {
-            return Parser.getInstance().getCustomer(json);          
+            Customer customer = Parser.getInstance().getCustomer(json);
+            if (listener != null && isCustomerEvent() && isValid()) {
+                listener.onCustomer(getEventType(), customer);
+            }
+            return customer;
         }
         return null;        
     }
     
     private String getJsonString() {
-        if (inputStr == null) {         
-            inputStr = this.readJsonFromRequest();  
-        }       
+        if (inputStr == null) {
+            byte[] bytes = getBody();
+            inputStr = bytes != null ? new String(bytes, UTF_8) : null;
+        }
         return inputStr;
     }
-    
-    private String readJsonFromRequest() {
-        StringBuffer jb = new StringBuffer();
-        String line = null;
-        
+
+    /**
+     * @return the raw request body, exactly as signed by Help Scout
+     */
+    public byte[] getBody() {
+        if (body == null) {
+            body = readBody(null);
+        }
+        return body;
+    }
+
+    private byte[] readBody(Mac mac) {
         try {
-            BufferedReader reader = request.getReader();
-            while ((line = reader.readLine()) != null) {
-                jb.append(line);
+            // the declared length is only a hint, it is not signed
+            int length = request.getContentLength();
+            if (length > WebhookSigner.MAX_BODY_SIZE) {
+                return null;
             }
-            reader.close();
-            
-        } catch (Exception e) { 
-            /*report an error*/ 
+            ByteArrayOutputStream out = new ByteArrayOutputStream(WebhookSigner.initialCapacity(length));
+            byte[] buffer = new byte[BUFFER_SIZE];
+            InputStream in = request.getInputStream();
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                if (out.size() + read > WebhookSigner.MAX_BODY_SIZE) {
+                    in.close();
+                    return null;
+                }
+                if (mac != null) {
+                    mac.update(buffer, 0, read);
+                }
+                out.write(buffer, 0, read);
+            }
+            in.close();
+            return out.toByteArray();
+        } catch (Exception e) {
+            /*report an error*/
+            return null;
         }
-        return jb.toString();
     }
 }
\ No newline at end of file
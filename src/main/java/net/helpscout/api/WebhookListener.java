@@ -0,0 +1,23 @@
+package net.helpscout.api;
+
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+
+/**
+ * Receives the objects parsed from verified webhook requests by
+ * {@link Webhook#getConversation()} and {@link Webhook#getCustomer()}.
+ */
+public interface WebhookListener {
+
+    /**
+     * @param eventType value of the X-HELPSCOUT-EVENT header, e.g. convo.created
+     * @param conversation
+     */
+    void onConversation(String eventType, Conversation conversation);
+
+    /**
+     * @param eventType value of the X-HELPSCOUT-EVENT header, e.g. customer.created
+     * @param customer
+     */
+    void onCustomer(String eventType, Customer customer);
+}
@@ -41,7 +41,7 @@ public class CustomFieldResponseAdapter implements JsonSerializer<CustomFieldRes
     }
 
 
-    private static CustomFieldResponse<?> createCustomField(CustomFieldType customFieldType) {
+    static CustomFieldResponse<?> createCustomField(CustomFieldType customFieldType) {
         switch (customFieldType) {
             case SINGLE_LINE:
                 return new SingleLineCustomFieldResponse();
@@ -6,36 +6,174 @@ import java.lang.reflect.Type;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
 
+/**
+ * Reads and writes dates in the API format, {@code yyyy-MM-dd'T'HH:mm:ss'Z'}
+ * in UTC.
+ *
+ * Dates in that format are parsed by the position of their digits, without
+ * locks or calendars; the epoch of the start of recently seen days is kept in
+ * a small direct-mapped cache, since the dates of a response mostly fall on a
+ * few days. Anything else goes through a per-thread {@link SimpleDateFormat}.
+ */
 public class DateAdapter implements JsonSerializer<Date>, JsonDeserializer<Date> {
-    private final DateFormat dateFormat;
 
-    public DateAdapter() {
-        dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
-        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
-    }
+    private static final String PATTERN = "yyyy-MM-dd'T'HH:mm:ss'Z'";
+    private static final int LENGTH = 20;
+    private static final long MILLIS_PER_DAY = 86400000L;
+    private static final int DAY_CACHE_SIZE = 256;
+
+    private static final ThreadLocal<DateFormat> FORMATS = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            DateFormat dateFormat = new SimpleDateFormat(PATTERN, Locale.US);
+            dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+            return dateFormat;
+        }
+    };
+
+    /**
+     * Entries are immutable, so they can be shared between threads without
+     * locks; a lost update only costs a recomputation.
+     */
+    private final Day[] days = new Day[DAY_CACHE_SIZE];
 
     public JsonElement serialize(Date src, Type srcType, JsonSerializationContext context) {
-        synchronized (dateFormat) {
-            return new JsonPrimitive(dateFormat.format(src));
+        String value = format(src.getTime());
+        return new JsonPrimitive(value != null ? value : FORMATS.get().format(src));
+    }
+
+    public Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
+        String value = json.getAsString();
+        long millis = parse(value);
+        if (millis != Long.MIN_VALUE) {
+            return new Date(millis);
+        }
+        try {
+            return FORMATS.get().parse(value);
+        } catch (ParseException e) {
+            throw new JsonParseException("Unparseable date: " + value, e);
+        }
+    }
+
+    /**
+     * @return the epoch millis of a date in the API format, or
+     * {@link Long#MIN_VALUE} if the value is in another format
+     */
+    long parse(String value) {
+        if (value.length() != LENGTH || value.charAt(4) != '-' || value.charAt(7) != '-' || value.charAt(10) != 'T'
+                || value.charAt(13) != ':' || value.charAt(16) != ':' || value.charAt(19) != 'Z') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(value, 0, 4);
+        int month = digits(value, 5, 2);
+        int day = digits(value, 8, 2);
+        int hour = digits(value, 11, 2);
+        int minute = digits(value, 14, 2);
+        int second = digits(value, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        return dayStart(year, month, day) + (hour * 3600 + minute * 60 + second) * 1000L;
+    }
+
+    private long dayStart(int year, int month, int day) {
+        int key = (year * 100 + month) * 100 + day;
+        int slot = (key ^ (key >>> 8)) & (DAY_CACHE_SIZE - 1);
+        Day cached = days[slot];
+        if (cached != null && cached.key == key) {
+            return cached.start;
         }
+        long start = daysFromCivil(year, month, day) * MILLIS_PER_DAY;
+        days[slot] = new Day(key, start);
+        return start;
     }
 
-    public synchronized Date deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) {
-        synchronized (dateFormat) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTimeZone(TimeZone.getTimeZone("UTC"));
-            try {
-                cal.setTime(dateFormat.parse(json.getAsString()));
-            } catch (ParseException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
+    /**
+     * @return the value of {@code length} decimal digits at {@code offset},
+     * or -1 if one of them is not a digit
+     */
+    private static int digits(String value, int offset, int length) {
+        int result = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
             }
-            return cal.getTime();
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Days since 1970-01-01 of a date in the proleptic Gregorian calendar
+     * (H. Hinnant's days_from_civil).
+     */
+    static long daysFromCivil(int year, int month, int day) {
+        year -= month <= 2 ? 1 : 0;
+        int era = (year >= 0 ? year : year - 399) / 400;
+        int yearOfEra = year - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097L + dayOfEra - 719468;
+    }
+
+    /**
+     * @return the date in the API format, or null if its year does not have
+     * four digits
+     */
+    static String format(long millis) {
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+        int secondOfDay = (int) (Math.floorMod(millis, MILLIS_PER_DAY) / 1000);
+
+        // civil_from_days, the inverse of daysFromCivil
+        long z = days + 719468;
+        long era = (z >= 0 ? z : z - 146096) / 146097;
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        if (year < 0 || year > 9999) {
+            return null;
+        }
+
+        char[] chars = new char[LENGTH];
+        put(chars, 0, (int) year, 4);
+        chars[4] = '-';
+        put(chars, 5, month, 2);
+        chars[7] = '-';
+        put(chars, 8, day, 2);
+        chars[10] = 'T';
+        put(chars, 11, secondOfDay / 3600, 2);
+        chars[13] = ':';
+        put(chars, 14, secondOfDay / 60 % 60, 2);
+        chars[16] = ':';
+        put(chars, 17, secondOfDay % 60, 2);
+        chars[19] = 'Z';
+        return new String(chars);
+    }
+
+    private static void put(char[] chars, int offset, int value, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static final class Day {
+        private final int key;
+        private final long start;
+
+        private Day(int key, long start) {
+            this.key = key;
+            this.start = start;
         }
     }
 }
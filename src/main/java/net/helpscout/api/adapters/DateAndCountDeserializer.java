@@ -3,26 +3,21 @@ package net.helpscout.api.adapters;
 import java.lang.reflect.Type;
 import java.util.Date;
 
-import lombok.RequiredArgsConstructor;
 import net.helpscout.api.model.report.common.DateAndCount;
 
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializationContext;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
 
-@RequiredArgsConstructor
 public class DateAndCountDeserializer implements JsonDeserializer<DateAndCount> {
     
-    private final GsonBuilder gson;
-    
     public DateAndCount deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context)
             throws JsonParseException {
         
         DateAndCount stat = new DateAndCount();
-        stat.setDate(extractDate(json.getAsJsonObject()));
+        stat.setDate(extractDate(json.getAsJsonObject(), context));
         stat.setCount(extractCount(json.getAsJsonObject()));
         
         return stat;
@@ -38,16 +33,16 @@ public class DateAndCountDeserializer implements JsonDeserializer<DateAndCount>
         throw new JsonParseException("Unable to parse the count for " + json);
     }
     
-    protected Date extractDate(JsonObject json) {
+    protected Date extractDate(JsonObject json, JsonDeserializationContext context) {
         // The API refers to the date by various names depending on context.
-        if(json.has("start")) return getDateByName(json, "start");
-        if(json.has("date"))  return getDateByName(json, "date");
+        if(json.has("start")) return getDateByName(json, "start", context);
+        if(json.has("date"))  return getDateByName(json, "date", context);
         
         throw new JsonParseException("Unable to parse the date for " + json);
     }
     
-    protected Date getDateByName(JsonObject json, String name) {
+    protected Date getDateByName(JsonObject json, String name, JsonDeserializationContext context) {
         JsonElement date = json.get(name);
-        return gson.create().fromJson(date, Date.class);
+        return context.deserialize(date, Date.class);
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package net.helpscout.api.adapters;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Base of the adapters generated for the model classes by
+ * {@code net.helpscout.api.codegen.TypeAdapterProcessor}.
+ *
+ * Reading is split into {@link #newInstance()} and
+ * {@link #readProperty(JsonReader, String, Object)}, so adapters of
+ * polymorphic types can create the object once its type is known and read
+ * the remaining properties into it. Writing is delegated to Gson's
+ * reflective adapter.
+ */
+public abstract class GeneratedTypeAdapter<T> extends TypeAdapter<T> {
+
+    private final TypeAdapter<T> delegate;
+
+    protected GeneratedTypeAdapter(TypeAdapter<T> delegate) {
+        this.delegate = delegate;
+    }
+
+    public abstract T newInstance();
+
+    /**
+     * Reads the value of a property into the object.
+     *
+     * @param in positioned at the value of the property
+     * @param name the JSON name of the property
+     * @param value the object being read
+     * @return false, with the value left unread, if the class has no such
+     * property
+     */
+    public abstract boolean readProperty(JsonReader in, String name, T value) throws IOException;
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        T value = newInstance();
+        in.beginObject();
+        while (in.hasNext()) {
+            if (!readProperty(in, in.nextName(), value)) {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return value;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        delegate.write(out, value);
+    }
+
+    /**
+     * @param owner the class declaring the field
+     * @param name
+     * @param target the class of the objects read
+     * @param valueType the type of the values set, boxed for a primitive field
+     * @return a handle of type {@code (target, valueType)void} setting the
+     * field, for classes having no setter for it
+     */
+    protected static MethodHandle fieldSetter(Class<?> owner, String name, Class<?> target, Class<?> valueType) {
+        try {
+            Field field = owner.getDeclaredField(name);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field)
+                    .asType(MethodType.methodType(void.class, target, valueType));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot access " + owner.getName() + "." + name, e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package net.helpscout.api.adapters;
+
+import java.lang.reflect.Constructor;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * Hands out the streaming adapters generated at compile time for the model
+ * classes (see {@code net.helpscout.api.codegen.TypeAdapterProcessor}).
+ * Types without one are left to the next factory, ultimately Gson's
+ * reflective binding.
+ *
+ * Register it before the adapters for specific types, which Gson then
+ * consults first.
+ */
+public class GeneratedTypeAdapterFactory implements TypeAdapterFactory {
+
+    private static final String MODEL_PACKAGE = "net.helpscout.api.model.";
+    private static final String SUFFIX = "_TypeAdapter";
+
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        if (!rawType.getName().startsWith(MODEL_PACKAGE) || rawType.getTypeParameters().length > 0) {
+            return null;
+        }
+        Class<?> adapterClass;
+        try {
+            adapterClass = Class.forName(rawType.getName() + SUFFIX, true, rawType.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        try {
+            Constructor<?> constructor = adapterClass.getConstructor(Gson.class, TypeAdapter.class);
+            return (TypeAdapter<T>) constructor.newInstance(gson, gson.getDelegateAdapter(this, type));
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create " + adapterClass.getName(), e);
+        }
+    }
+}
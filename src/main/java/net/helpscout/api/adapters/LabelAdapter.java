@@ -0,0 +1,43 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Streaming adapter of a cbo enum written as its label or key, e.g.
+ * {@code new LabelAdapter<Status>(Status::findByKey, Status::getKey)}. It
+ * decodes like the enum's tree adapter, such as {@link StatusAdapter}.
+ */
+public class LabelAdapter<E extends Enum<E>> extends TypeAdapter<E> {
+
+    private final Function<String, E> find;
+    private final Function<E, String> label;
+
+    public LabelAdapter(Function<String, E> find, Function<E, String> label) {
+        this.find = find;
+        this.label = label;
+    }
+
+    @Override
+    public E read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return find.apply(in.nextString());
+    }
+
+    @Override
+    public void write(JsonWriter out, E value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(label.apply(value));
+    }
+}
@@ -1,7 +1,10 @@
 package net.helpscout.api.adapters;
 
 import com.google.gson.*;
-import net.helpscout.api.cbo.JsonThreadLocal;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import net.helpscout.api.cbo.PersonType;
 import net.helpscout.api.model.ref.CustomerRef;
 import net.helpscout.api.model.ref.PersonRef;
@@ -9,29 +12,55 @@ import net.helpscout.api.model.ref.TeamRef;
 import net.helpscout.api.model.ref.UserRef;
 import org.apache.commons.lang3.StringUtils;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
-public class PersonRefAdapter implements JsonDeserializer<PersonRef> {
-    private GsonBuilder gson;
+/**
+ * Decodes a {@link PersonRef} to the class matching its {@code type}. Refs
+ * whose type is given by their parent, like the author of a thread, are
+ * decoded by the parent's adapter through {@link #read}.
+ *
+ * The adapters of the concrete classes are looked up once, when Gson creates
+ * this adapter, so decoding does not go back through Gson.
+ */
+public class PersonRefAdapter implements TypeAdapterFactory {
 
-    public PersonRefAdapter(GsonBuilder gson) {
-        gson.registerTypeAdapter(PersonType.class, new PersonTypeAdapter());
-        this.gson = gson;
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != PersonRef.class) {
+            return null;
+        }
+        return (TypeAdapter<T>) new Adapter(gson);
     }
 
-    public PersonRef deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        JsonElement element = JsonThreadLocal.get();
-        String type = element.getAsJsonObject().get("type").getAsString();
-        Class<? extends PersonRef> personRefClass = getPersonRefClass(type);
-        return gson.create().fromJson(json, personRefClass);
+    /**
+     * @return the adapters of the concrete ref classes, by {@link PersonType}
+     * ordinal
+     */
+    static TypeAdapter<?>[] adapters(Gson gson) {
+        TypeAdapter<?>[] adapters = new TypeAdapter<?>[PersonType.values().length];
+        for (PersonType personType : PersonType.values()) {
+            adapters[personType.ordinal()] = gson.getAdapter(getPersonRefClass(personType));
+        }
+        return adapters;
     }
 
+    /**
+     * @param adapters as returned by {@link #adapters(Gson)}
+     * @param personType the type of the ref, e.g. customer
+     * @param json the ref
+     */
+    static PersonRef read(TypeAdapter<?>[] adapters, String personType, JsonElement json) {
+        return (PersonRef) adapters[personType(personType).ordinal()].fromJsonTree(json);
+    }
 
-    private static Class<? extends PersonRef> getPersonRefClass(String personTypeString) {
-        if (StringUtils.isEmpty(personTypeString)) {
-            return UserRef.class;
-        }
-        PersonType personType = PersonType.findByLabel(personTypeString.trim());
+    /**
+     * @return the type of a ref, users when none is given
+     */
+    static PersonType personType(String personType) {
+        return StringUtils.isEmpty(personType) ? PersonType.User : PersonType.findByLabel(personType.trim());
+    }
+
+    private static Class<? extends PersonRef> getPersonRefClass(PersonType personType) {
         switch (personType) {
             case User:
                 return UserRef.class;
@@ -42,6 +71,36 @@ public class PersonRefAdapter implements JsonDeserializer<PersonRef> {
             default:
                 return UserRef.class;
         }
+    }
 
+    private static final class Adapter extends TypeAdapter<PersonRef> {
+        private final Gson gson;
+        private final TypeAdapter<?>[] adapters;
+
+        private Adapter(Gson gson) {
+            this.gson = gson;
+            this.adapters = adapters(gson);
+        }
+
+        @Override
+        public PersonRef read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            JsonObject json = new JsonParser().parse(in).getAsJsonObject();
+            JsonElement type = json.get("type");
+            return PersonRefAdapter.read(adapters, type != null && !type.isJsonNull() ? type.getAsString() : null, json);
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public void write(JsonWriter out, PersonRef value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            ((TypeAdapter) gson.getAdapter(value.getClass())).write(out, value);
+        }
     }
 }
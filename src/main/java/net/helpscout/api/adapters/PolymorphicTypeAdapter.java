@@ -0,0 +1,101 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Streaming adapter of a type whose class is given by the {@code type}
+ * property of the object. Properties coming before {@code type} are kept as
+ * a tree; once the class is known they are read into a new object, and the
+ * following ones are read straight from the stream by the generated adapter
+ * of the class. The API mostly sends {@code type} among the first
+ * properties, so little is ever held as a tree.
+ */
+abstract class PolymorphicTypeAdapter<T> extends TypeAdapter<T> {
+
+    private static final String TYPE = "type";
+
+    private final TypeAdapter<T> writer;
+
+    PolymorphicTypeAdapter(TypeAdapter<T> writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param type the value of the {@code type} property, null if absent
+     * @return the adapter of the matching class, or null to decode the
+     * object to null
+     */
+    abstract GeneratedTypeAdapter<T> adapter(String type);
+
+    /**
+     * Reads the properties kept as a tree into a new object.
+     */
+    T start(GeneratedTypeAdapter<T> adapter, String type, JsonObject properties) {
+        return adapter.fromJsonTree(properties);
+    }
+
+    /**
+     * Reads a property following {@code type} from the stream.
+     */
+    boolean readProperty(JsonReader in, String name, GeneratedTypeAdapter<T> adapter, String type, T value)
+            throws IOException {
+        return adapter.readProperty(in, name, value);
+    }
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        JsonObject properties = new JsonObject();
+        GeneratedTypeAdapter<T> adapter = null;
+        String type = null;
+        boolean typed = false;
+        T value = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (value != null) {
+                if (!readProperty(in, name, adapter, type, value)) {
+                    in.skipValue();
+                }
+            } else if (typed) {
+                in.skipValue();
+            } else if (name.equals(TYPE)) {
+                typed = true;
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                } else {
+                    type = in.nextString();
+                }
+                properties.addProperty(TYPE, type);
+                adapter = adapter(type);
+                if (adapter != null) {
+                    value = start(adapter, type, properties);
+                }
+            } else {
+                properties.add(name, new JsonParser().parse(in));
+            }
+        }
+        in.endObject();
+
+        if (!typed && (adapter = adapter(null)) != null) {
+            value = start(adapter, null, properties);
+        }
+        return value;
+    }
+
+    @Override
+    public void write(JsonWriter out, T value) throws IOException {
+        writer.write(out, value);
+    }
+}
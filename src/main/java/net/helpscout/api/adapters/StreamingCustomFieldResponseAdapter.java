@@ -0,0 +1,90 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.helpscout.api.model.customfield.CustomFieldResponse;
+import net.helpscout.api.model.customfield.CustomFieldType;
+
+import java.io.IOException;
+
+/**
+ * Streaming counterpart of {@link CustomFieldResponseAdapter}. The
+ * properties of a custom field may come in any order, so they are read
+ * first and the response of the field's type is created at the end.
+ */
+public class StreamingCustomFieldResponseAdapter extends TypeAdapter<CustomFieldResponse<?>> {
+
+    @Override
+    public CustomFieldResponse<?> read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String type = null;
+        String value = null;
+        Long fieldId = null;
+        String name = null;
+
+        in.beginObject();
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+            case "type":
+                type = nextString(in);
+                break;
+            case "value":
+                value = nextString(in);
+                break;
+            case "fieldId":
+                fieldId = nextLong(in);
+                break;
+            case "name":
+                name = nextString(in);
+                break;
+            default:
+                in.skipValue();
+            }
+        }
+        in.endObject();
+
+        if (type == null) {
+            throw new JsonParseException("'type' field expected in the JSON");
+        }
+        CustomFieldResponse<?> response = CustomFieldResponseAdapter.createCustomField(CustomFieldType.valueOf(type));
+        response.fromStringValue(value);
+        response.setFieldId(fieldId);
+        response.setName(name);
+        return response;
+    }
+
+    @Override
+    public void write(JsonWriter out, CustomFieldResponse<?> value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("fieldId").value(value.getFieldId());
+        out.name("value").value(value.getStringValue());
+        out.name("name").value(value.getName());
+        out.endObject();
+    }
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static Long nextLong(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextLong();
+    }
+}
@@ -0,0 +1,40 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * {@link DateAdapter} reading from and writing to the stream, without a
+ * {@code JsonPrimitive} per date.
+ */
+public class StreamingDateAdapter extends TypeAdapter<Date> {
+
+    private final DateAdapter dates = new DateAdapter();
+
+    @Override
+    public Date read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
+        long millis = dates.parse(value);
+        return millis != Long.MIN_VALUE ? new Date(millis) : dates.deserialize(new JsonPrimitive(value), Date.class, null);
+    }
+
+    @Override
+    public void write(JsonWriter out, Date value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        String formatted = DateAdapter.format(value.getTime());
+        out.value(formatted != null ? formatted : dates.serialize(value, Date.class, null).getAsString());
+    }
+}
@@ -0,0 +1,46 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import net.helpscout.api.model.ref.PersonRef;
+
+/**
+ * Streaming counterpart of {@link PersonRefAdapter}, decoding a
+ * {@link PersonRef} to the class matching its {@code type} with the
+ * generated adapters of the ref classes. Register it after
+ * {@link PersonRefAdapter}, which still writes refs and decodes them when
+ * the generated adapters are missing.
+ */
+public class StreamingPersonRefAdapter implements TypeAdapterFactory {
+
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != PersonRef.class) {
+            return null;
+        }
+        TypeAdapter<?>[] adapters = PersonRefAdapter.adapters(gson);
+        for (TypeAdapter<?> adapter : adapters) {
+            if (!(adapter instanceof GeneratedTypeAdapter)) {
+                return null;
+            }
+        }
+        return (TypeAdapter<T>) new Adapter(adapters, gson.getDelegateAdapter(this, (TypeToken<PersonRef>) type));
+    }
+
+    private static final class Adapter extends PolymorphicTypeAdapter<PersonRef> {
+        private final TypeAdapter<?>[] adapters;
+
+        private Adapter(TypeAdapter<?>[] adapters, TypeAdapter<PersonRef> writer) {
+            super(writer);
+            this.adapters = adapters;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        GeneratedTypeAdapter<PersonRef> adapter(String type) {
+            return (GeneratedTypeAdapter<PersonRef>) adapters[PersonRefAdapter.personType(type).ordinal()];
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import net.helpscout.api.cbo.ThreadType;
+import net.helpscout.api.model.ref.PersonRef;
+import net.helpscout.api.model.thread.LineItem;
+
+import java.io.IOException;
+
+/**
+ * Streaming counterpart of {@link ThreadsAdapater}: threads are decoded to
+ * the class matching their {@code type} with the generated adapters of the
+ * thread classes, and their author with the ref adapter chosen by the
+ * thread type. Register it after {@link ThreadsAdapater}, which still writes
+ * threads and decodes them when the generated adapters are missing.
+ */
+public class StreamingThreadsAdapter implements TypeAdapterFactory {
+
+    private static final String CREATED_BY = "createdBy";
+
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != LineItem.class) {
+            return null;
+        }
+        TypeAdapter<?>[] threads = new TypeAdapter<?>[ThreadsAdapater.THREAD_CLASSES.length];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = gson.getAdapter(ThreadsAdapater.THREAD_CLASSES[i]);
+            if (!(threads[i] instanceof GeneratedTypeAdapter)) {
+                return null;
+            }
+        }
+        return (TypeAdapter<T>) new Adapter(threads, PersonRefAdapter.adapters(gson),
+                gson.getDelegateAdapter(this, (TypeToken<LineItem>) type));
+    }
+
+    private static final class Adapter extends PolymorphicTypeAdapter<LineItem> {
+        private final TypeAdapter<?>[] threads;
+        private final TypeAdapter<?>[] personRefs;
+
+        private Adapter(TypeAdapter<?>[] threads, TypeAdapter<?>[] personRefs, TypeAdapter<LineItem> writer) {
+            super(writer);
+            this.threads = threads;
+            this.personRefs = personRefs;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        GeneratedTypeAdapter<LineItem> adapter(String type) {
+            ThreadType threadType = ThreadType.findByLabel(type);
+            return threadType != null ? (GeneratedTypeAdapter<LineItem>) threads[threadType.ordinal()] : null;
+        }
+
+        @Override
+        LineItem start(GeneratedTypeAdapter<LineItem> adapter, String type, JsonObject properties) {
+            JsonElement createdBy = properties.remove(CREATED_BY);
+            LineItem item = adapter.fromJsonTree(properties);
+            if (createdBy != null && !createdBy.isJsonNull()) {
+                item.setCreatedBy(PersonRefAdapter.read(personRefs, type, createdBy));
+            }
+            return item;
+        }
+
+        @Override
+        boolean readProperty(JsonReader in, String name, GeneratedTypeAdapter<LineItem> adapter, String type,
+                             LineItem value) throws IOException {
+            if (name.equals(CREATED_BY)) {
+                PersonRef createdBy = (PersonRef) personRefs[PersonRefAdapter.personType(type).ordinal()].read(in);
+                if (createdBy != null) {
+                    value.setCreatedBy(createdBy);
+                }
+                return true;
+            }
+            return adapter.readProperty(in, name, value);
+        }
+    }
+}
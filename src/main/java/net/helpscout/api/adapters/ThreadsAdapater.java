@@ -1,47 +1,91 @@
 package net.helpscout.api.adapters;
 
 import com.google.gson.*;
-import net.helpscout.api.cbo.JsonThreadLocal;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import net.helpscout.api.cbo.ThreadType;
 import net.helpscout.api.model.thread.*;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
-public class ThreadsAdapater implements JsonDeserializer<LineItem> {
+/**
+ * Decodes a {@link LineItem} to the thread class matching its {@code type},
+ * found with one lookup in a table by {@link ThreadType} ordinal. The author
+ * of a thread is a customer for customer threads and a user otherwise, so
+ * {@code createdBy} is decoded here, with the thread type passed along,
+ * rather than by the thread class's adapter.
+ *
+ * The adapters of the thread classes are looked up once, when Gson creates
+ * this adapter, so decoding does not go back through Gson.
+ */
+public class ThreadsAdapater implements TypeAdapterFactory {
 
-    private GsonBuilder gson;
+    static final Class<?>[] THREAD_CLASSES = new Class<?>[ThreadType.values().length];
 
-    public ThreadsAdapater(GsonBuilder gson) {
-        this.gson = gson;
+    static {
+        THREAD_CLASSES[ThreadType.LineItem.ordinal()] = BaseLineItem.class;
+        THREAD_CLASSES[ThreadType.Note.ordinal()] = Note.class;
+        THREAD_CLASSES[ThreadType.Message.ordinal()] = Message.class;
+        THREAD_CLASSES[ThreadType.Customer.ordinal()] = Customer.class;
+        THREAD_CLASSES[ThreadType.ForwardParent.ordinal()] = ForwardParent.class;
+        THREAD_CLASSES[ThreadType.ForwardChild.ordinal()] = ForwardChild.class;
+        THREAD_CLASSES[ThreadType.Chat.ordinal()] = Chat.class;
+        THREAD_CLASSES[ThreadType.Phone.ordinal()] = Phone.class;
     }
 
-    public LineItem deserialize(JsonElement json, Type typeOfT, JsonDeserializationContext context) throws JsonParseException {
-        JsonObject obj = json.getAsJsonObject();
-
-        JsonThreadLocal.set(json);
-
-        LineItem item = null;
-
-        String theType = obj.get("type").getAsString();
-        if (ThreadType.LineItem.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, BaseLineItem.class);
-        } else if (ThreadType.Message.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, Message.class);
-        } else if (ThreadType.Customer.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, Customer.class);
-        } else if (ThreadType.Note.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, Note.class);
-        } else if (ThreadType.ForwardParent.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, ForwardParent.class);
-        } else if (ThreadType.ForwardChild.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, ForwardChild.class);
-        } else if (ThreadType.Chat.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, Chat.class);
-        } else if (ThreadType.Phone.getLabel().equals(theType)) {
-            item = gson.create().fromJson(json, Phone.class);
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != LineItem.class) {
+            return null;
+        }
+        return (TypeAdapter<T>) new Adapter(gson);
+    }
+
+    private static final class Adapter extends TypeAdapter<LineItem> {
+        private final Gson gson;
+        private final TypeAdapter<?>[] threads = new TypeAdapter<?>[THREAD_CLASSES.length];
+        private final TypeAdapter<?>[] personRefs;
+
+        private Adapter(Gson gson) {
+            this.gson = gson;
+            for (int i = 0; i < THREAD_CLASSES.length; i++) {
+                threads[i] = gson.getAdapter(THREAD_CLASSES[i]);
+            }
+            this.personRefs = PersonRefAdapter.adapters(gson);
         }
 
-        JsonThreadLocal.unset();
-        return item;
+        @Override
+        public LineItem read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            // the type may come after the other properties, so the thread is read as a tree first
+            JsonObject json = new JsonParser().parse(in).getAsJsonObject();
+            JsonElement typeElement = json.get("type");
+            String theType = typeElement != null && !typeElement.isJsonNull() ? typeElement.getAsString() : null;
+            ThreadType type = ThreadType.findByLabel(theType);
+            if (type == null) {
+                return null;
+            }
+            JsonElement createdBy = json.remove("createdBy");
+            LineItem item = (LineItem) threads[type.ordinal()].fromJsonTree(json);
+            if (createdBy != null && !createdBy.isJsonNull()) {
+                item.setCreatedBy(PersonRefAdapter.read(personRefs, theType, createdBy));
+            }
+            return item;
+        }
+
+        @Override
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        public void write(JsonWriter out, LineItem value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            ((TypeAdapter) gson.getAdapter(value.getClass())).write(out, value);
+        }
     }
 }
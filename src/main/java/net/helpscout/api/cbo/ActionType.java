@@ -15,6 +15,9 @@ public enum ActionType {
     private final int value;
     private final String label;
 
+    private static final EnumLookup<ActionType> LOOKUP =
+            new EnumLookup<ActionType>(values(), ActionType::getLabel, ActionType::getValue);
+
     private ActionType(int value, String label) {
         this.value = value;
         this.label = label;
@@ -29,20 +32,10 @@ public enum ActionType {
     }
 
     public static ActionType findByValue(Integer value) {
-        for (ActionType item : ActionType.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byValue(value, null);
     }
 
     public static ActionType findByLabel(String label) {
-        for (ActionType item : ActionType.values()) {
-            if (item.getLabel().equalsIgnoreCase(label)) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byLabel(label, null);
     }
 }
@@ -14,6 +14,9 @@ public enum ConversationType {
     private final int value;
     private final String label;
 
+    private static final EnumLookup<ConversationType> LOOKUP =
+            new EnumLookup<ConversationType>(values(), ConversationType::getLabel, ConversationType::getValue);
+
     private ConversationType(int value, String label) {
         this.value = value;
         this.label = label;
@@ -28,20 +31,10 @@ public enum ConversationType {
     }
 
     public static ConversationType findByValue(Integer value) {
-        for (ConversationType item : ConversationType.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return ConversationType.Email;
+        return LOOKUP.byValue(value, ConversationType.Email);
     }
 
     public static ConversationType findByLabel(String label) {
-        for (ConversationType item : ConversationType.values()) {
-            if (item.getLabel().equalsIgnoreCase(label)) {
-                return item;
-            }
-        }
-        return ConversationType.Email;
+        return LOOKUP.byLabel(label, ConversationType.Email);
     }
 }
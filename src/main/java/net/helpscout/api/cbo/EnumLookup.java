@@ -0,0 +1,97 @@
+package net.helpscout.api.cbo;
+
+/**
+ * Precomputed lookup of enum constants by their label, ignoring case, and by
+ * their numeric value, so JSON values are decoded without scanning or
+ * cloning {@code values()} and without allocating.
+ *
+ * Labels live in an open-addressing table sized so that every label has its
+ * own slot; the hash folds ASCII case while it is computed, and a hit is
+ * confirmed with {@link String#equalsIgnoreCase}. Values index an array.
+ */
+final class EnumLookup<E extends Enum<E>> {
+
+    interface Label<E> {
+        String of(E item);
+    }
+
+    interface Value<E> {
+        int of(E item);
+    }
+
+    private final String[] labels;
+    private final Object[] byLabel;
+    private final int mask;
+    private final Object[] byValue;
+
+    EnumLookup(E[] items, Label<E> label, Value<E> value) {
+        int size = Integer.highestOneBit(Math.max(items.length, 1) * 4 - 1) << 1;
+        this.labels = new String[size];
+        this.byLabel = new Object[size];
+        this.mask = size - 1;
+        int maxValue = 0;
+        for (E item : items) {
+            String key = label.of(item);
+            int slot = hash(key) & mask;
+            while (labels[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            labels[slot] = key;
+            byLabel[slot] = item;
+            maxValue = Math.max(maxValue, value.of(item));
+        }
+        this.byValue = new Object[maxValue + 1];
+        for (E item : items) {
+            if (value.of(item) >= 0) {
+                byValue[value.of(item)] = item;
+            }
+        }
+    }
+
+    /**
+     * @return the constant whose label equals {@code key} ignoring case, or
+     * {@code otherwise}
+     */
+    @SuppressWarnings("unchecked")
+    E byLabel(String key, E otherwise) {
+        if (key == null) {
+            return otherwise;
+        }
+        int slot = hash(key) & mask;
+        String candidate;
+        while ((candidate = labels[slot]) != null) {
+            if (candidate.equalsIgnoreCase(key)) {
+                return (E) byLabel[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return otherwise;
+    }
+
+    /**
+     * @return the constant with the given value, or {@code otherwise}
+     */
+    @SuppressWarnings("unchecked")
+    E byValue(int value, E otherwise) {
+        if (value < 0 || value >= byValue.length || byValue[value] == null) {
+            return otherwise;
+        }
+        return (E) byValue[value];
+    }
+
+    /**
+     * Hash of the string with ASCII letters lower-cased, so labels differing
+     * in case only share a slot.
+     */
+    private static int hash(String key) {
+        int hash = 0;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                c += 'a' - 'A';
+            }
+            hash = 31 * hash + c;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -2,6 +2,14 @@ package net.helpscout.api.cbo;
 
 import com.google.gson.JsonElement;
 
+/**
+ * @deprecated person refs and threads no longer take their parent's JSON
+ * from this thread-local: {@link net.helpscout.api.adapters.ThreadsAdapater}
+ * hands the thread type to {@link net.helpscout.api.adapters.PersonRefAdapter}
+ * on the stack, and other refs are decoded by their own {@code type}. Values
+ * set here are not read by the parser; kept for compatibility
+ */
+@Deprecated
 public class JsonThreadLocal {
     public static final ThreadLocal<JsonElement> instance = new ThreadLocal<JsonElement>();
     
@@ -14,6 +14,9 @@ public enum PersonType {
     private final int value;
     private final String label;
 
+    private static final EnumLookup<PersonType> LOOKUP =
+            new EnumLookup<PersonType>(values(), PersonType::getLabel, PersonType::getValue);
+
     private PersonType(int value, String label) {
         this.value = value;
         this.label = label;
@@ -28,20 +31,10 @@ public enum PersonType {
     }
 
     public static PersonType findByValue(Integer value) {
-        for (PersonType item : PersonType.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return PersonType.User;
+        return LOOKUP.byValue(value, PersonType.User);
     }
 
     public static PersonType findByLabel(String label) {
-        for (PersonType item : PersonType.values()) {
-            if (item.getLabel().equalsIgnoreCase(label)) {
-                return item;
-            }
-        }
-        return PersonType.User;
+        return LOOKUP.byLabel(label, PersonType.User);
     }
 }
@@ -10,6 +10,9 @@ public enum Status {
     private final int value;    
     private final String key;
 
+    private static final EnumLookup<Status> LOOKUP =
+            new EnumLookup<Status>(values(), Status::getKey, Status::getValue);
+
     private Status(String key, int value) {
         this.value = value;     
         this.key = key;
@@ -25,20 +28,10 @@ public enum Status {
 
     
     public static Status findByValue(Integer value) {
-        for (Status item : Status.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byValue(value, null);
     }
 
     public static Status findByKey(String key) {
-        for (Status item : Status.values()) {
-            if (item.getKey().equalsIgnoreCase(key)) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byLabel(key, null);
     }
 }
\ No newline at end of file
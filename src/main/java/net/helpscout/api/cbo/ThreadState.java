@@ -8,6 +8,9 @@ public enum ThreadState {
     private final int value;    
     private final String key;
 
+    private static final EnumLookup<ThreadState> LOOKUP =
+            new EnumLookup<ThreadState>(values(), ThreadState::getKey, ThreadState::getValue);
+
     private ThreadState(String key, int value) {
         this.value = value;     
         this.key = key;
@@ -22,20 +25,10 @@ public enum ThreadState {
     }
 
     public static ThreadState findByValue(Integer value) {
-        for (ThreadState item : ThreadState.values()) {
-            if (item.getValue() == value) {             
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byValue(value, null);
     }
 
     public static ThreadState findByKey(String key) {
-        for (ThreadState item : ThreadState.values()) {
-            if (item.getKey().equalsIgnoreCase(key)) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byLabel(key, null);
     }
 }
\ No newline at end of file
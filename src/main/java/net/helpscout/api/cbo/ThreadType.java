@@ -19,6 +19,9 @@ public enum ThreadType {
     private final int value;
     private final String label;
 
+    private static final EnumLookup<ThreadType> LOOKUP =
+            new EnumLookup<ThreadType>(values(), ThreadType::getLabel, ThreadType::getValue);
+
     private ThreadType(int value, String label) {
         this.value = value;
         this.label = label;
@@ -33,20 +36,10 @@ public enum ThreadType {
     }
 
     public static ThreadType findByValue(Integer value) {
-        for (ThreadType item : ThreadType.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byValue(value, null);
     }
 
     public static ThreadType findByLabel(String label) {
-        for (ThreadType item : ThreadType.values()) {
-            if (item.getLabel().equalsIgnoreCase(label)) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byLabel(label, null);
     }
 }
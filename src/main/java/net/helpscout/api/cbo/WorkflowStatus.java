@@ -15,6 +15,9 @@ public enum WorkflowStatus {
     private final String key;
     private final int value;
 
+    private static final EnumLookup<WorkflowStatus> LOOKUP =
+            new EnumLookup<WorkflowStatus>(values(), WorkflowStatus::getKey, WorkflowStatus::getValue);
+
 
     private WorkflowStatus(String key, Integer value) {
         this.key = key;
@@ -30,20 +33,10 @@ public enum WorkflowStatus {
     }
 
     public static WorkflowStatus findByValue(int value) {
-        for (WorkflowStatus item : WorkflowStatus.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byValue(value, null);
     }
 
     public static WorkflowStatus findByKey(String key) {
-        for (WorkflowStatus item : WorkflowStatus.values()) {
-            if (item.getKey().equalsIgnoreCase(key)) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byLabel(key, null);
     }
 }
@@ -13,6 +13,9 @@ public enum WorkflowType {
     private final String key;
     private final int value;
 
+    private static final EnumLookup<WorkflowType> LOOKUP =
+            new EnumLookup<WorkflowType>(values(), WorkflowType::getKey, WorkflowType::getValue);
+
     private WorkflowType(String key, int value) {
         this.key = key;
         this.value = value;
@@ -28,20 +31,10 @@ public enum WorkflowType {
     }
 
     public static WorkflowType findByValue(Integer value) {
-        for (WorkflowType item : WorkflowType.values()) {
-            if (item.getValue() == value) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byValue(value, null);
     }
 
     public static WorkflowType findByKey(String key) {
-        for (WorkflowType item : WorkflowType.values()) {
-            if (item.getKey().equalsIgnoreCase(key)) {
-                return item;
-            }
-        }
-        return null;
+        return LOOKUP.byLabel(key, null);
     }
 }
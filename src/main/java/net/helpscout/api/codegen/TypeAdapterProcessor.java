@@ -0,0 +1,373 @@
+package net.helpscout.api.codegen;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates a streaming Gson {@code TypeAdapter} for each concrete class of
+ * {@code net.helpscout.api.model}, named after the class with a
+ * {@code _TypeAdapter} suffix and picked up at runtime by
+ * {@code GeneratedTypeAdapterFactory}.
+ *
+ * A generated adapter extends {@code GeneratedTypeAdapter}: it reads each
+ * property of an object with a {@code switch} on its name and sets it through
+ * the Lombok setter, or, for fields without one, through a
+ * {@code static final} method handle called with {@code invokeExact}, which
+ * the JIT can inline like a setter. Writing is left to the reflective
+ * adapter. Classes Gson could bind differently (generic, nested or abstract
+ * classes, classes without a no-arg constructor, or with two fields of the
+ * same JSON name) get no adapter and stay reflective.
+ *
+ * The processor is compiled on its own before the main sources; see the
+ * compiler executions in the pom.
+ */
+public class TypeAdapterProcessor extends AbstractProcessor {
+
+    static final String MODEL_PACKAGE = "net.helpscout.api.model";
+    static final String SUFFIX = "_TypeAdapter";
+
+    private static final String SERIALIZED_NAME = "com.google.gson.annotations.SerializedName";
+    private static final String LOMBOK = "lombok.";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            if (isModel(type)) {
+                try {
+                    generate(type);
+                } catch (IOException e) {
+                    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                            "Cannot write the type adapter of " + type + ": " + e, type);
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isModel(TypeElement type) {
+        String name = type.getQualifiedName().toString();
+        return name.startsWith(MODEL_PACKAGE + ".")
+                && !name.endsWith(SUFFIX)
+                && type.getKind() == ElementKind.CLASS
+                && type.getNestingKind() == NestingKind.TOP_LEVEL
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && type.getModifiers().contains(Modifier.PUBLIC)
+                && type.getTypeParameters().isEmpty()
+                && hasNoArgConstructor(type);
+    }
+
+    private void generate(TypeElement type) throws IOException {
+        List<Property> properties = properties(type);
+        if (properties == null) {
+            return;
+        }
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String modelName = type.getSimpleName().toString();
+        String adapterName = modelName + SUFFIX;
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + adapterName, type);
+        try (PrintWriter out = new PrintWriter(file.openWriter())) {
+            out.println("package " + packageName + ";");
+            out.println();
+            out.println("import java.io.IOException;");
+            out.println();
+            out.println("import com.google.gson.Gson;");
+            out.println("import com.google.gson.TypeAdapter;");
+            out.println("import com.google.gson.reflect.TypeToken;");
+            out.println("import com.google.gson.stream.JsonReader;");
+            out.println();
+            out.println("import net.helpscout.api.adapters.GeneratedTypeAdapter;");
+            out.println();
+            out.println("/** Generated by " + getClass().getName() + " from {@link " + modelName + "}. */");
+            out.println("public final class " + adapterName + " extends GeneratedTypeAdapter<" + modelName + "> {");
+            out.println();
+            boolean handles = false;
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                if (property.setter == null) {
+                    // typed (model, boxed value) so that invokeExact below matches it
+                    out.println("    private static final java.lang.invoke.MethodHandle FIELD" + i + " = fieldSetter("
+                            + property.declaringClass + ".class, \"" + property.fieldName + "\", "
+                            + modelName + ".class, " + property.erasedType + ".class);");
+                    handles = true;
+                }
+            }
+            if (handles) {
+                out.println();
+            }
+            for (int i = 0; i < properties.size(); i++) {
+                out.println("    private final TypeAdapter<" + properties.get(i).boxedType + "> adapter" + i + ";");
+            }
+            out.println();
+            out.println("    public " + adapterName + "(Gson gson, TypeAdapter<" + modelName + "> delegate) {");
+            out.println("        super(delegate);");
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                out.println("        this.adapter" + i + " = gson.getAdapter(" + property.token + ");");
+            }
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public " + modelName + " newInstance() {");
+            out.println("        return new " + modelName + "();");
+            out.println("    }");
+            out.println();
+            out.println("    @Override");
+            out.println("    public boolean readProperty(JsonReader in, String name, " + modelName + " value) throws IOException {");
+            out.println("        switch (name) {");
+            for (int i = 0; i < properties.size(); i++) {
+                Property property = properties.get(i);
+                out.println("        case \"" + property.jsonName + "\": {");
+                out.println("            " + property.boxedType + " v = adapter" + i + ".read(in);");
+                String indent = property.primitive ? "                " : "            ";
+                if (property.primitive) {
+                    out.println("            if (v != null) {");
+                }
+                if (property.setter != null) {
+                    out.println(indent + "value." + property.setter + "(v);");
+                } else {
+                    out.println(indent + "try {");
+                    out.println(indent + "    FIELD" + i + ".invokeExact(value, v);");
+                    out.println(indent + "} catch (Throwable e) {");
+                    out.println(indent + "    throw new com.google.gson.JsonParseException(e);");
+                    out.println(indent + "}");
+                }
+                if (property.primitive) {
+                    out.println("            }");
+                }
+                out.println("            return true;");
+                out.println("        }");
+            }
+            out.println("        default:");
+            out.println("            return false;");
+            out.println("        }");
+            out.println("    }");
+            out.println("}");
+        }
+    }
+
+    /**
+     * @return the properties Gson would bind, from the class and its
+     * superclasses, or null if the class must stay reflective
+     */
+    private List<Property> properties(TypeElement type) {
+        Types types = processingEnv.getTypeUtils();
+        DeclaredType declared = (DeclaredType) type.asType();
+        List<Property> properties = new ArrayList<Property>();
+        Set<String> jsonNames = new HashSet<String>();
+
+        for (TypeElement current = type; current != null; current = superclass(current)) {
+            if (current.getQualifiedName().contentEquals("java.lang.Object")) {
+                break;
+            }
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                Property property = new Property();
+                property.fieldName = field.getSimpleName().toString();
+                property.jsonName = jsonName(field);
+                if (!jsonNames.add(property.jsonName)) {
+                    return null;
+                }
+                TypeMirror fieldType = types.asMemberOf(declared, field);
+                if (fieldType.getKind() == TypeKind.TYPEVAR || fieldType.getKind() == TypeKind.ERROR) {
+                    return null;
+                }
+                property.primitive = fieldType.getKind().isPrimitive();
+                property.boxedType = property.primitive
+                        ? types.boxedClass((javax.lang.model.type.PrimitiveType) fieldType).getQualifiedName().toString()
+                        : fieldType.toString();
+                property.erasedType = property.primitive
+                        ? property.boxedType
+                        : types.erasure(fieldType).toString();
+                property.token = isRaw(fieldType)
+                        ? types.erasure(fieldType).toString() + ".class"
+                        : "new TypeToken<" + property.boxedType + ">() {}";
+                property.declaringClass = current.getQualifiedName().toString();
+                property.setter = setter(current, field, fieldType, type);
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private static boolean isRaw(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return true;
+        }
+        if (type.getKind() == TypeKind.ARRAY) {
+            return isRaw(((javax.lang.model.type.ArrayType) type).getComponentType());
+        }
+        return type.getKind() == TypeKind.DECLARED && ((DeclaredType) type).getTypeArguments().isEmpty();
+    }
+
+    private static TypeElement superclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        return (TypeElement) ((DeclaredType) superclass).asElement();
+    }
+
+    /**
+     * @return the name of the setter of the field callable from the package
+     * of the model, or null when it has to be set through a method handle
+     */
+    private String setter(TypeElement owner, VariableElement field, TypeMirror fieldType, TypeElement model) {
+        String name = field.getSimpleName().toString();
+        if (fieldType.getKind() == TypeKind.BOOLEAN && name.startsWith("is") && name.length() > 2
+                && Character.isUpperCase(name.charAt(2))) {
+            name = name.substring(2);
+        }
+        String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(owner)
+                .equals(processingEnv.getElementUtils().getPackageOf(model));
+
+        for (ExecutableElement method : ElementFilter.methodsIn(owner.getEnclosedElements())) {
+            if (method.getSimpleName().contentEquals(setter)) {
+                // Lombok generates nothing when a method of that name exists
+                boolean callable = method.getParameters().size() == 1
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && processingEnv.getTypeUtils().isAssignable(fieldType, method.getParameters().get(0).asType())
+                        && visible(method.getModifiers(), samePackage);
+                return callable ? setter : null;
+            }
+        }
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            return null;
+        }
+        String access = lombokSetterAccess(field);
+        if (access == null) {
+            access = lombokSetterAccess(owner);
+        }
+        if (access == null || access.equals("NONE") || access.equals("PRIVATE")
+                || (!access.equals("PUBLIC") && !samePackage)) {
+            return null;
+        }
+        return setter;
+    }
+
+    private static boolean visible(Set<Modifier> modifiers, boolean samePackage) {
+        return modifiers.contains(Modifier.PUBLIC) || (samePackage && !modifiers.contains(Modifier.PRIVATE));
+    }
+
+    /**
+     * @return the access level of the setters Lombok generates for the
+     * element, or null if it generates none
+     */
+    private static String lombokSetterAccess(Element element) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            String name = annotation.getAnnotationType().toString();
+            if (name.equals(LOMBOK + "Data")) {
+                return "PUBLIC";
+            }
+            if (name.equals(LOMBOK + "Setter")) {
+                for (ExecutableElement key : annotation.getElementValues().keySet()) {
+                    if (key.getSimpleName().contentEquals("value")) {
+                        return annotation.getElementValues().get(key).getValue().toString();
+                    }
+                }
+                return "PUBLIC";
+            }
+        }
+        return null;
+    }
+
+    private static String jsonName(VariableElement field) {
+        for (AnnotationMirror annotation : field.getAnnotationMirrors()) {
+            if (annotation.getAnnotationType().toString().equals(SERIALIZED_NAME)) {
+                for (AnnotationValue value : annotation.getElementValues().values()) {
+                    return value.getValue().toString();
+                }
+            }
+        }
+        return field.getSimpleName().toString();
+    }
+
+    /**
+     * Gson calls the no-arg constructor when there is one, and otherwise
+     * allocates the object without running any constructor or field
+     * initializer; only the first case can be reproduced in plain code.
+     */
+    private static boolean hasNoArgConstructor(TypeElement type) {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        for (ExecutableElement constructor : constructors) {
+            if (constructor.getParameters().isEmpty()) {
+                return !constructor.getModifiers().contains(Modifier.PRIVATE);
+            }
+        }
+        boolean explicit = !constructors.isEmpty();
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            String name = annotation.getAnnotationType().toString();
+            if (name.equals(LOMBOK + "NoArgsConstructor")) {
+                return annotation.getElementValues().isEmpty();
+            }
+            if (name.equals(LOMBOK + "AllArgsConstructor") || name.equals(LOMBOK + "RequiredArgsConstructor")
+                    || name.equals(LOMBOK + "Builder") || name.equals(LOMBOK + "Value")) {
+                explicit = true;
+            }
+            if (name.equals(LOMBOK + "Data") && hasFinalField(type)) {
+                // the required-args constructor of @Data then takes arguments
+                explicit = true;
+            }
+        }
+        return !explicit;
+    }
+
+    private static boolean hasFinalField(TypeElement type) {
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.FINAL) && !field.getModifiers().contains(Modifier.STATIC)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Property {
+        private String fieldName;
+        private String jsonName;
+        private String boxedType;
+        private String erasedType;
+        private String token;
+        private String declaringClass;
+        private String setter;
+        private boolean primitive;
+    }
+}
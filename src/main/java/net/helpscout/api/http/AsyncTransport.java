@@ -0,0 +1,14 @@
+package net.helpscout.api.http;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link Transport}, used by
+ * {@link net.helpscout.api.AsyncApiClient}. Responses are fully buffered, so
+ * closing them is optional. Cancelling the returned future aborts the request.
+ */
+public interface AsyncTransport extends Closeable {
+
+    CompletableFuture<Response> execute(Request request);
+}
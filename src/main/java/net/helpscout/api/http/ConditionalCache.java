@@ -0,0 +1,115 @@
+package net.helpscout.api.http;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the validators ({@code ETag}, {@code Last-Modified}) and the
+ * parsed result of GET responses, keyed on the request URL. Later requests
+ * for the same URL are sent as conditional requests, and a
+ * {@code 304 Not Modified} answer is served with the result parsed the first
+ * time, without reading or parsing a body.
+ *
+ * Callers receive the same result instance for as long as it is unchanged,
+ * so they must not modify it. The least recently used entries are dropped
+ * once {@code maxEntries} is reached.
+ */
+public class ConditionalCache {
+
+    public static final int DEFAULT_MAX_ENTRIES = 500;
+
+    private static final int HTTP_STATUS_NOT_MODIFIED = 304;
+
+    private final Map<String, Entry> entries;
+
+    public ConditionalCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    public ConditionalCache(final int maxEntries) {
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * Adds the validators of the cached response, if any, to the request.
+     *
+     * @param request
+     * @return the entry the request was made conditional on, to be passed to
+     * {@link #notModified}; null if the URL is not cached
+     */
+    public Entry prepare(Request request) {
+        Entry entry = entries.get(request.getUrl());
+        if (entry == null) {
+            return null;
+        }
+        if (entry.etag != null) {
+            request.header("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            request.header("If-Modified-Since", entry.lastModified);
+        }
+        return entry;
+    }
+
+    /**
+     * The entry is the one returned by {@link #prepare}, not looked up
+     * again, so a 304 is answered even if the entry has been evicted since.
+     *
+     * @param validated the entry returned by {@link #prepare}, may be null
+     * @param response
+     * @return the cached result when the response is a 304 for a cached
+     * request, otherwise null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T notModified(Entry validated, Response response) {
+        if (validated == null || response.getStatusCode() != HTTP_STATUS_NOT_MODIFIED) {
+            return null;
+        }
+        return (T) validated.result;
+    }
+
+    /**
+     * Caches the parsed result of a successful response carrying validators,
+     * and forgets any previous one otherwise.
+     *
+     * @param request
+     * @param response
+     * @param result
+     */
+    public void store(Request request, Response response, Object result) {
+        String etag = response.getHeader("ETag");
+        String lastModified = response.getHeader("Last-Modified");
+        if (result == null || (etag == null && lastModified == null)) {
+            entries.remove(request.getUrl());
+            return;
+        }
+        entries.put(request.getUrl(), new Entry(etag, lastModified, result));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * The validators and parsed result of a cached response.
+     */
+    public static final class Entry {
+        private final String etag;
+        private final String lastModified;
+        private final Object result;
+
+        private Entry(String etag, String lastModified, Object result) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.result = result;
+        }
+    }
+}
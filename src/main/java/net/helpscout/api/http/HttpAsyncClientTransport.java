@@ -0,0 +1,166 @@
+package net.helpscout.api.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClientBuilder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+
+/**
+ * Transport running on a small, fixed set of NIO reactor threads, so the
+ * number of requests in flight is bounded by the connection pool rather than
+ * by threads. Pool settings are shared with {@link HttpClientTransport};
+ * idle connections are closed by a daemon thread checking the pool every
+ * {@link TransportConfig#getIdleTimeout()}.
+ */
+public class HttpAsyncClientTransport implements AsyncTransport {
+
+    private final CloseableHttpAsyncClient client;
+    private final ScheduledExecutorService evictor;
+
+    public HttpAsyncClientTransport() {
+        this(new TransportConfig());
+    }
+
+    public HttpAsyncClientTransport(TransportConfig config) {
+        PoolingNHttpClientConnectionManager pool;
+        try {
+            pool = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.custom()
+                    .setConnectTimeout(config.getConnectTimeout())
+                    .setSoTimeout(config.getSocketTimeout())
+                    .build()));
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Unable to start the I/O reactor", e);
+        }
+        pool.setMaxTotal(config.getMaxConnections());
+        pool.setDefaultMaxPerRoute(config.getMaxConnectionsPerHost());
+
+        HttpAsyncClientBuilder builder = HttpAsyncClientBuilder.create()
+                .setConnectionManager(pool)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(config.getConnectTimeout())
+                        .setSocketTimeout(config.getSocketTimeout())
+                        .setRedirectsEnabled(false)
+                        .build());
+        if (!config.isKeepAlive()) {
+            builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+        client = builder.build();
+        client.start();
+        evictor = config.getIdleTimeout() > 0 ? startEvictor(pool, config.getIdleTimeout()) : null;
+    }
+
+    /**
+     * The async client has no idle eviction of its own.
+     */
+    private static ScheduledExecutorService startEvictor(final PoolingNHttpClientConnectionManager pool,
+                                                         final long idleTimeout) {
+        ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "helpscout-async-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictor.scheduleWithFixedDelay(() -> {
+            pool.closeExpiredConnections();
+            pool.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+        return evictor;
+    }
+
+    public CompletableFuture<Response> execute(Request request) {
+        RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getUrl());
+        // unlike the blocking client, the async client does not negotiate compression itself
+        builder.addHeader("Accept-Encoding", "gzip,deflate");
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.addHeader(header.getKey(), header.getValue());
+        }
+        if (request.getBody() != null) {
+            builder.setEntity(new ByteArrayEntity(request.getBody()));
+        }
+
+        final CompletableFuture<Response> result = new CompletableFuture<Response>();
+        final Future<HttpResponse> call = client.execute(builder.build(), new FutureCallback<HttpResponse>() {
+            public void completed(HttpResponse response) {
+                result.complete(new BufferedResponse(response));
+            }
+
+            public void failed(Exception ex) {
+                result.completeExceptionally(ex);
+            }
+
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        result.whenComplete((response, ex) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    public void close() throws IOException {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        client.close();
+    }
+
+    private static class BufferedResponse implements Response {
+
+        private final HttpResponse response;
+
+        BufferedResponse(HttpResponse response) {
+            this.response = response;
+        }
+
+        public int getStatusCode() {
+            return response.getStatusLine().getStatusCode();
+        }
+
+        public String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return header != null ? header.getValue() : null;
+        }
+
+        public InputStream getBody() throws IOException {
+            HttpEntity entity = response.getEntity();
+            if (entity == null) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            Header encoding = entity.getContentEncoding();
+            if (encoding != null && "gzip".equalsIgnoreCase(encoding.getValue())) {
+                entity = new GzipDecompressingEntity(entity);
+            } else if (encoding != null && "deflate".equalsIgnoreCase(encoding.getValue())) {
+                entity = new DeflateDecompressingEntity(entity);
+            }
+            return entity.getContent();
+        }
+
+        public void close() {
+            // the body is already buffered in memory
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package net.helpscout.api.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.NoConnectionReuseStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+
+/**
+ * Transport backed by a bounded pool of persistent connections. Connections
+ * are handed back to the pool when a response is closed and evicted once they
+ * have been idle for {@link TransportConfig#getIdleTimeout()}.
+ */
+public class HttpClientTransport implements Transport {
+
+    private final CloseableHttpClient client;
+
+    public HttpClientTransport() {
+        this(new TransportConfig());
+    }
+
+    public HttpClientTransport(TransportConfig config) {
+        PoolingHttpClientConnectionManager pool = new PoolingHttpClientConnectionManager();
+        pool.setMaxTotal(config.getMaxConnections());
+        pool.setDefaultMaxPerRoute(config.getMaxConnectionsPerHost());
+
+        HttpClientBuilder builder = HttpClientBuilder.create()
+                .setConnectionManager(pool)
+                .disableRedirectHandling()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(config.getConnectTimeout())
+                        .setSocketTimeout(config.getSocketTimeout())
+                        .build());
+        if (config.getIdleTimeout() > 0) {
+            builder.evictExpiredConnections()
+                   .evictIdleConnections(config.getIdleTimeout(), TimeUnit.MILLISECONDS);
+        }
+        if (!config.isKeepAlive()) {
+            builder.setConnectionReuseStrategy(NoConnectionReuseStrategy.INSTANCE);
+        }
+        client = builder.build();
+    }
+
+    public Response execute(Request request) throws IOException {
+        RequestBuilder builder = RequestBuilder.create(request.getMethod()).setUri(request.getUrl());
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            builder.addHeader(header.getKey(), header.getValue());
+        }
+        if (request.getBody() != null) {
+            builder.setEntity(new ByteArrayEntity(request.getBody()));
+        }
+        return new PooledResponse(client.execute(builder.build()));
+    }
+
+    public void close() throws IOException {
+        client.close();
+    }
+
+    private static class PooledResponse implements Response {
+
+        private final CloseableHttpResponse response;
+
+        PooledResponse(CloseableHttpResponse response) {
+            this.response = response;
+        }
+
+        public int getStatusCode() {
+            return response.getStatusLine().getStatusCode();
+        }
+
+        public String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return header != null ? header.getValue() : null;
+        }
+
+        public InputStream getBody() throws IOException {
+            HttpEntity entity = response.getEntity();
+            return entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+        }
+
+        public void close() throws IOException {
+            try {
+                // reading the rest of the body lets the connection go back to the pool
+                EntityUtils.consume(response.getEntity());
+            } finally {
+                response.close();
+            }
+        }
+    }
+}
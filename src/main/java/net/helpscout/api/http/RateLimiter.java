@@ -0,0 +1,163 @@
+package net.helpscout.api.http;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.client.utils.DateUtils;
+
+/**
+ * Token bucket shared by all requests of a client. Each request takes a
+ * token; tokens refill at a steady rate up to {@code burst}, and a request
+ * finding the bucket empty waits for the next one.
+ *
+ * The bucket is kept as a single timestamp, the time at which it would be
+ * full again if no further requests were made (the generic cell rate
+ * algorithm), so taking a token is one compare-and-set and never locks.
+ *
+ * The limiter adapts to the server: {@code X-RateLimit-Limit-Minute} lowers
+ * the rate to the advertised limit, {@code X-RateLimit-Remaining-Minute}
+ * drains the bucket to the number of requests left, and {@code Retry-After}
+ * holds back every request until it has passed. A limiter built with no rate
+ * lets requests through unthrottled until the server advertises one.
+ */
+public class RateLimiter {
+
+    static final String LIMIT_HEADER = "X-RateLimit-Limit-Minute";
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining-Minute";
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+
+    public static final int DEFAULT_BURST = 10;
+
+    private static final long ONE_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final long configuredInterval;
+    private final int burst;
+    private volatile long interval;
+    private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+    private final AtomicLong pausedUntil = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a limiter that only throttles once the server advertises a rate
+     * limit or asks to back off.
+     */
+    public RateLimiter() {
+        this(0, DEFAULT_BURST);
+    }
+
+    /**
+     * @param requestsPerMinute steady rate; 0 for no limit until the server
+     * advertises one
+     * @param burst number of requests that may be sent back to back
+     */
+    public RateLimiter(int requestsPerMinute, int burst) {
+        if (requestsPerMinute < 0) {
+            throw new IllegalArgumentException("requestsPerMinute must not be negative");
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive");
+        }
+        this.configuredInterval = requestsPerMinute == 0 ? 0 : ONE_MINUTE / requestsPerMinute;
+        this.interval = configuredInterval;
+        this.burst = burst;
+    }
+
+    /**
+     * Takes a token, waiting until one is available.
+     *
+     * @throws InterruptedException
+     */
+    public void acquire() throws InterruptedException {
+        long delay = reserve();
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+    }
+
+    /**
+     * Takes a token without waiting for it.
+     *
+     * @return nanoseconds to wait before sending the request
+     */
+    public long reserve() {
+        long now = System.nanoTime();
+        long delay = Math.max(0, pausedUntil.get() - now);
+        long interval = this.interval;
+        if (interval == 0) {
+            return delay;
+        }
+        long tolerance = interval * burst;
+        long full;
+        long start;
+        do {
+            full = fullAt.get();
+            start = full - now > 0 ? full : now;
+        } while (!fullAt.compareAndSet(full, start + interval));
+        return Math.max(delay, start + interval - tolerance - now);
+    }
+
+    /**
+     * Adapts to the rate limit headers of a response.
+     *
+     * @param response
+     */
+    public void update(Response response) {
+        long now = System.nanoTime();
+        Integer limit = intHeader(response, LIMIT_HEADER);
+        if (limit != null && limit > 0) {
+            interval = Math.max(configuredInterval, ONE_MINUTE / limit);
+        }
+        Integer remaining = intHeader(response, REMAINING_HEADER);
+        long interval = this.interval;
+        if (remaining != null && interval > 0) {
+            laterOf(fullAt, now + (burst - Math.min(remaining, burst)) * interval);
+        }
+        long retryAfter = retryAfterNanos(response);
+        if (retryAfter > 0) {
+            laterOf(pausedUntil, now + retryAfter);
+        }
+    }
+
+    private static void laterOf(AtomicLong time, long candidate) {
+        long current;
+        do {
+            current = time.get();
+            if (current - candidate >= 0) {
+                return;
+            }
+        } while (!time.compareAndSet(current, candidate));
+    }
+
+    private static Integer intHeader(Response response, String name) {
+        String value = response.getHeader(name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param response
+     * @return the delay asked for by {@code Retry-After}, given either in
+     * seconds or as an HTTP date, or 0 when there is none
+     */
+    static long retryAfterNanos(Response response) {
+        String value = response.getHeader(RETRY_AFTER_HEADER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return TimeUnit.SECONDS.toNanos(Math.max(0, Long.parseLong(value.trim())));
+        } catch (NumberFormatException e) {
+            Date date = DateUtils.parseDate(value.trim());
+            if (date == null) {
+                return 0;
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, date.getTime() - System.currentTimeMillis()));
+        }
+    }
+}
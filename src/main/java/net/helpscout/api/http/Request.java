@@ -0,0 +1,20 @@
+package net.helpscout.api.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import lombok.Data;
+
+@Data
+public class Request {
+
+    private final String method;
+    private final String url;
+    private final Map<String, String> headers = new LinkedHashMap<String, String>();
+    private byte[] body;
+
+    public Request header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+}
@@ -0,0 +1,22 @@
+package net.helpscout.api.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface Response extends Closeable {
+
+    int getStatusCode();
+
+    /**
+     * @param name case-insensitive header name
+     * @return the first value of the header, or null
+     */
+    String getHeader(String name);
+
+    /**
+     * @return the decoded response body, empty when the response has none
+     * @throws IOException
+     */
+    InputStream getBody() throws IOException;
+}
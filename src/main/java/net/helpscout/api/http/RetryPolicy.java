@@ -0,0 +1,41 @@
+package net.helpscout.api.http;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import lombok.Data;
+
+/**
+ * Retry settings for {@link RetryingTransport}. Backoffs are in milliseconds.
+ *
+ * A failed attempt is retried when its status is one of
+ * {@code retryStatuses} (or it failed with an I/O error), the request is
+ * {@link #isRetryable(Request) retryable}, fewer than {@code maxRetries}
+ * retries have been made and the retry budget is not exhausted. The budget
+ * starts at {@code retryBudget} retries; every first attempt adds
+ * {@code retryBudgetRatio} of a retry back, up to {@code retryBudget}, so
+ * under a sustained outage retries add at most that fraction of load.
+ */
+@Data
+public class RetryPolicy {
+
+    private int maxRetries = 3;
+    private long initialBackoff = 500;
+    private long maxBackoff = 30000;
+    private Set<Integer> retryStatuses = new HashSet<Integer>(Arrays.asList(429, 500, 503));
+    private Set<String> retryMethods = new HashSet<String>(Arrays.asList("GET", "PUT", "DELETE"));
+    private int retryBudget = 10;
+    private double retryBudgetRatio = 0.2;
+
+    /**
+     * Only idempotent methods are retried by default. Override to allow
+     * retrying specific endpoints, e.g. a POST known to be safe to repeat.
+     *
+     * @param request
+     * @return whether the request may be sent again
+     */
+    public boolean isRetryable(Request request) {
+        return retryMethods.contains(request.getMethod());
+    }
+}
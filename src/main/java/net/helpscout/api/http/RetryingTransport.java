@@ -0,0 +1,153 @@
+package net.helpscout.api.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retries failed requests of another transport according to a
+ * {@link RetryPolicy}. Waits between attempts grow exponentially from
+ * {@link RetryPolicy#getInitialBackoff()} up to
+ * {@link RetryPolicy#getMaxBackoff()}, each drawn at random below that bound
+ * so that clients failing together do not retry together. A
+ * {@code Retry-After} header replaces the computed wait; one longer than the
+ * maximum backoff ends the retries and the response is returned as is.
+ *
+ * Given a {@link RateLimiter}, every attempt takes a token from it and every
+ * response updates it, so retries count against the rate limit and a
+ * {@code Retry-After} holds back the other requests of the client too.
+ */
+public class RetryingTransport implements Transport {
+
+    private static final long BUDGET_UNIT = 1000;
+
+    private final Transport delegate;
+    private final RetryPolicy policy;
+    private final AtomicLong budget;
+
+    public RetryingTransport(Transport delegate) {
+        this(delegate, new RetryPolicy());
+    }
+
+    public RetryingTransport(Transport delegate, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.budget = new AtomicLong(policy.getRetryBudget() * BUDGET_UNIT);
+    }
+
+    public Response execute(Request request) throws IOException {
+        try {
+            return execute(request, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the rate limit");
+        }
+    }
+
+    /**
+     * Sends the request, and its retries, through the limiter.
+     *
+     * @param request
+     * @param limiter may be null
+     * @return the response of the last attempt
+     * @throws IOException
+     * @throws InterruptedException while waiting for a token
+     */
+    public Response execute(Request request, RateLimiter limiter) throws IOException, InterruptedException {
+        deposit();
+        boolean retryable = policy.isRetryable(request);
+        for (int retry = 0; ; retry++) {
+            if (limiter != null) {
+                limiter.acquire();
+            }
+            Response response;
+            try {
+                response = delegate.execute(request);
+            } catch (IOException e) {
+                if (isInterruption(e)) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+                if (!retryable || retry >= policy.getMaxRetries() || !withdraw()) {
+                    throw e;
+                }
+                pause(backoff(retry));
+                continue;
+            }
+            if (limiter != null) {
+                limiter.update(response);
+            }
+            if (!retryable || retry >= policy.getMaxRetries()
+                    || !policy.getRetryStatuses().contains(response.getStatusCode())) {
+                return response;
+            }
+            long retryAfter = RateLimiter.retryAfterNanos(response);
+            long wait = retryAfter > 0 ? retryAfter : backoff(retry);
+            if (wait > TimeUnit.MILLISECONDS.toNanos(policy.getMaxBackoff()) || !withdraw()) {
+                return response;
+            }
+            response.close();
+            if (limiter == null || retryAfter == 0) {
+                // otherwise the limiter holds the next attempt back
+                pause(wait);
+            }
+        }
+    }
+
+    /**
+     * @param retry number of retries made so far
+     * @return a random wait below the exponential bound for this retry
+     */
+    private long backoff(int retry) {
+        long bound = policy.getInitialBackoff() << Math.min(retry, 30);
+        bound = Math.min(policy.getMaxBackoff(), bound);
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(bound + 1));
+    }
+
+    private void deposit() {
+        long cap = policy.getRetryBudget() * BUDGET_UNIT;
+        long credit = (long) (policy.getRetryBudgetRatio() * BUDGET_UNIT);
+        long current;
+        do {
+            current = budget.get();
+            if (current >= cap) {
+                return;
+            }
+        } while (!budget.compareAndSet(current, Math.min(cap, current + credit)));
+    }
+
+    private boolean withdraw() {
+        long current;
+        do {
+            current = budget.get();
+            if (current < BUDGET_UNIT) {
+                return false;
+            }
+        } while (!budget.compareAndSet(current, current - BUDGET_UNIT));
+        return true;
+    }
+
+    /**
+     * Timeouts are {@link InterruptedIOException}s as well, and worth a
+     * retry; an interrupted thread must stop instead.
+     */
+    private static boolean isInterruption(IOException e) {
+        return e instanceof InterruptedIOException
+                && (e.getClass() == InterruptedIOException.class || Thread.currentThread().isInterrupted());
+    }
+
+    private static void pause(long nanos) throws InterruptedIOException {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+
+    public void close() throws IOException {
+        delegate.close();
+    }
+}
@@ -0,0 +1,21 @@
+package net.helpscout.api.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Sends requests built by the {@link net.helpscout.api.ApiClient} over the wire.
+ * Implementations must be safe to share between threads.
+ */
+public interface Transport extends Closeable {
+
+    /**
+     * Executes the request. The caller must close the returned response so the
+     * underlying connection can be released.
+     *
+     * @param request
+     * @return Response
+     * @throws IOException
+     */
+    Response execute(Request request) throws IOException;
+}
@@ -0,0 +1,18 @@
+package net.helpscout.api.http;
+
+import lombok.Data;
+
+/**
+ * Connection pool settings for {@link HttpClientTransport}. Timeouts are in
+ * milliseconds, 0 means no timeout.
+ */
+@Data
+public class TransportConfig {
+
+    private int maxConnections = 20;
+    private int maxConnectionsPerHost = 10;
+    private long idleTimeout = 30000;
+    private int connectTimeout = 0;
+    private int socketTimeout = 0;
+    private boolean keepAlive = true;
+}
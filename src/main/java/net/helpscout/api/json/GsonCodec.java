@@ -0,0 +1,191 @@
+package net.helpscout.api.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import net.helpscout.api.Page;
+import net.helpscout.api.adapters.*;
+import net.helpscout.api.cbo.*;
+import net.helpscout.api.model.customfield.CustomFieldResponse;
+import net.helpscout.api.model.report.common.DateAndCount;
+
+/**
+ * The Gson engine: every object is read as a {@code JsonElement} tree
+ * first and bound from the tree. Pages and items are found by streaming, so
+ * only the objects being decoded are ever held as trees.
+ */
+public class GsonCodec implements JsonCodec {
+
+    private final Gson gson;
+
+    public GsonCodec() {
+        this(newBuilder());
+    }
+
+    protected GsonCodec(GsonBuilder builder) {
+        // Gson instances are immutable and thread-safe, so one is built up
+        // front and shared; this keeps its type adapter cache warm between calls.
+        this.gson = builder.create();
+    }
+
+    /**
+     * @return a builder with the adapters of the API types
+     */
+    public static GsonBuilder newBuilder() {
+        GsonBuilder builder = new GsonBuilder();
+        // first, so that the adapters below take precedence over generated ones
+        builder.registerTypeAdapterFactory(new GeneratedTypeAdapterFactory());
+        builder.registerTypeAdapter(ConversationType.class, new ConversationTypeAdapter());
+        builder.registerTypeAdapter(ThreadType.class, new ThreadTypeAdapter());
+        builder.registerTypeAdapter(ThreadState.class, new ThreadStateAdapter());
+        builder.registerTypeAdapter(Status.class, new StatusAdapter());
+        builder.registerTypeAdapter(ActionType.class, new ActionTypeAdapter());
+        builder.registerTypeAdapter(Date.class, new DateAdapter());
+        builder.registerTypeAdapter(WorkflowStatus.class, new WorkflowStatusAdapter());
+        builder.registerTypeAdapter(WorkflowType.class, new WorkflowTypeAdapter());
+        builder.registerTypeAdapter(PersonType.class, new PersonTypeAdapter());
+        builder.registerTypeAdapterFactory(new PersonRefAdapter());
+        builder.registerTypeAdapterFactory(new ThreadsAdapater());
+        builder.registerTypeAdapter(DateAndCount.class, new DateAndCountDeserializer());
+        builder.registerTypeAdapter(CustomFieldResponse.class, new CustomFieldResponseAdapter());
+        return builder;
+    }
+
+    public Gson getGson() {
+        return gson;
+    }
+
+    /**
+     * Reads the value the reader is positioned at.
+     */
+    protected <T> T readValue(JsonReader reader, Class<T> type) throws IOException {
+        return gson.fromJson(new JsonParser().parse(reader), type);
+    }
+
+    public <T> T read(Reader json, Class<T> type) throws IOException {
+        JsonReader reader = newReader(json);
+        T value = readValue(reader, type);
+        endDocument(reader);
+        return value;
+    }
+
+    public <T> T readItem(Reader json, Class<T> type) throws IOException {
+        JsonReader reader = newReader(json);
+        T item = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (item == null && name.equals("item")) {
+                item = readValue(reader, type);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        endDocument(reader);
+        return item;
+    }
+
+    public <T> List<T> readList(Reader json, Class<T> type) throws IOException {
+        JsonReader reader = newReader(json);
+        List<T> items = readItems(reader, type);
+        endDocument(reader);
+        return items;
+    }
+
+    public <T> Page<T> readPage(Reader json, Class<T> type, String wrapperObjectName) throws IOException {
+        JsonReader reader = newReader(json);
+        if (wrapperObjectName == null) {
+            Page<T> page = readPage(reader, type);
+            endDocument(reader);
+            return page;
+        }
+        Page<T> page = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (page == null && name.equals(wrapperObjectName)) {
+                page = readPage(reader, type);
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        endDocument(reader);
+        return page;
+    }
+
+    private <T> Page<T> readPage(JsonReader reader, Class<T> type) throws IOException {
+        Page<T> p = new Page<T>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+
+            if (key.equals("page")) {
+                p.setPage(nextInteger(reader));
+            } else if (key.equals("pages")) {
+                p.setPages(nextInteger(reader));
+            } else if (key.equals("count")) {
+                p.setCount(nextInteger(reader));
+            } else if (key.equals("items") || key.equalsIgnoreCase("results")) {
+                p.setItems(readItems(reader, type));
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return p;
+    }
+
+    private <T> List<T> readItems(JsonReader reader, Class<T> type) throws IOException {
+        List<T> col = new ArrayList<T>();
+
+        reader.beginArray();
+        while (reader.hasNext()) {
+            T o = readValue(reader, type);
+            if (o != null) {
+                col.add(o);
+            }
+        }
+        reader.endArray();
+        return col;
+    }
+
+    /**
+     * As lenient as Gson's own parsing.
+     */
+    private static JsonReader newReader(Reader json) {
+        JsonReader reader = new JsonReader(json);
+        reader.setLenient(true);
+        return reader;
+    }
+
+    /**
+     * Fails on anything following the value, as Gson does when parsing a
+     * whole document.
+     */
+    private static void endDocument(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("Did not consume the entire document.");
+        }
+    }
+
+    private static Integer nextInteger(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextInt();
+    }
+}
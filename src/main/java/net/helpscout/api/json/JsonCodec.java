@@ -0,0 +1,53 @@
+package net.helpscout.api.json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+import net.helpscout.api.Page;
+
+/**
+ * Decodes API responses and webhook payloads to the model classes, including
+ * polymorphic threads, person refs, custom fields and dates.
+ *
+ * {@link net.helpscout.api.Parser} uses the first implementation listed in
+ * {@code META-INF/services/net.helpscout.api.json.JsonCodec}, or
+ * {@link GsonCodec} when there is none; another one can be set with
+ * {@link net.helpscout.api.Parser#setCodec(JsonCodec)}. Implementations
+ * must be thread-safe, and must pass {@code JsonCodecConformanceTest}.
+ */
+public interface JsonCodec {
+
+    /**
+     * @param json an object, e.g. a webhook payload
+     * @param type
+     * @return the object, or null for a JSON null
+     */
+    <T> T read(Reader json, Class<T> type) throws IOException;
+
+    /**
+     * @param json a response for a single object, whose {@code item}
+     *             property holds the object
+     * @param type
+     * @return the item, or null if there is none
+     */
+    <T> T readItem(Reader json, Class<T> type) throws IOException;
+
+    /**
+     * @param json an array of objects
+     * @param type
+     * @return the non-null elements
+     */
+    <T> List<T> readList(Reader json, Class<T> type) throws IOException;
+
+    /**
+     * @param json a page response, with {@code page}, {@code pages},
+     *             {@code count} and {@code items} (or {@code results})
+     * @param type the type of the page items
+     * @param wrapperObjectName the name of the property holding the page, or
+     *                          null when the page is the top level object
+     * @return the page, or null if there is no property named
+     * {@code wrapperObjectName}
+     */
+    <T> Page<T> readPage(Reader json, Class<T> type, String wrapperObjectName) throws IOException;
+}
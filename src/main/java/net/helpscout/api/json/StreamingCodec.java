@@ -0,0 +1,78 @@
+package net.helpscout.api.json;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+
+import net.helpscout.api.adapters.*;
+import net.helpscout.api.cbo.*;
+import net.helpscout.api.model.customfield.CustomFieldResponse;
+
+/**
+ * The streaming engine: objects are decoded straight from the response
+ * stream by the adapters generated for the model classes, with no
+ * {@code JsonElement} tree in between. Dates, enums, threads, person refs
+ * and custom fields have streaming adapters as well; threads and refs only
+ * keep the properties preceding their {@code type} as a tree.
+ *
+ * It decodes the same objects as {@link GsonCodec}, of which it is a
+ * configuration: types without a streaming adapter fall back to the tree
+ * adapters of {@link GsonCodec#newBuilder()}.
+ */
+public class StreamingCodec extends GsonCodec {
+
+    /**
+     * Gson's own adapter cache is a synchronized map, this one is read
+     * without locking.
+     */
+    private final ConcurrentMap<Class<?>, TypeAdapter<?>> adapters = new ConcurrentHashMap<Class<?>, TypeAdapter<?>>();
+
+    public StreamingCodec() {
+        super(newStreamingBuilder());
+    }
+
+    /**
+     * @return the builder of {@link GsonCodec#newBuilder()}, with the
+     * streaming adapters registered last so that they take precedence
+     */
+    public static GsonBuilder newStreamingBuilder() {
+        GsonBuilder builder = newBuilder();
+        builder.registerTypeAdapter(ConversationType.class,
+                new LabelAdapter<ConversationType>(ConversationType::findByLabel, ConversationType::getLabel));
+        builder.registerTypeAdapter(ThreadType.class,
+                new LabelAdapter<ThreadType>(ThreadType::findByLabel, ThreadType::getLabel));
+        builder.registerTypeAdapter(ThreadState.class,
+                new LabelAdapter<ThreadState>(ThreadState::findByKey, ThreadState::getKey));
+        builder.registerTypeAdapter(Status.class,
+                new LabelAdapter<Status>(Status::findByKey, Status::getKey));
+        builder.registerTypeAdapter(ActionType.class,
+                new LabelAdapter<ActionType>(ActionType::findByLabel, ActionType::getLabel));
+        builder.registerTypeAdapter(WorkflowStatus.class,
+                new LabelAdapter<WorkflowStatus>(WorkflowStatus::findByKey, WorkflowStatus::getKey));
+        builder.registerTypeAdapter(WorkflowType.class,
+                new LabelAdapter<WorkflowType>(WorkflowType::findByKey, WorkflowType::getKey));
+        builder.registerTypeAdapter(PersonType.class,
+                new LabelAdapter<PersonType>(PersonType::findByLabel, PersonType::getLabel));
+        builder.registerTypeAdapter(Date.class, new StreamingDateAdapter());
+        builder.registerTypeAdapterFactory(new StreamingPersonRefAdapter());
+        builder.registerTypeAdapterFactory(new StreamingThreadsAdapter());
+        builder.registerTypeAdapter(CustomFieldResponse.class, new StreamingCustomFieldResponseAdapter());
+        return builder;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T readValue(JsonReader reader, Class<T> type) throws IOException {
+        TypeAdapter<T> adapter = (TypeAdapter<T>) adapters.get(type);
+        if (adapter == null) {
+            adapter = getGson().getAdapter(type);
+            adapters.putIfAbsent(type, adapter);
+        }
+        return adapter.read(reader);
+    }
+}
@@ -0,0 +1,134 @@
+package net.helpscout.api.webhook;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Servlet 3.1 non-blocking reads, reached through reflection because this
+ * library compiles against, and keeps working in, Servlet 2.5 containers.
+ * The methods are looked up once.
+ */
+final class AsyncServletSupport {
+
+    interface Listener {
+        void onDataAvailable() throws IOException;
+
+        void onAllDataRead() throws IOException;
+
+        void onError(Throwable t);
+    }
+
+    private static final Class<?> READ_LISTENER;
+    private static final Method START_ASYNC;
+    private static final Method COMPLETE;
+    private static final Method SET_READ_LISTENER;
+    private static final Method IS_READY;
+    private static final Method IS_FINISHED;
+
+    static {
+        Class<?> readListener = null;
+        Method startAsync = null;
+        Method complete = null;
+        Method setReadListener = null;
+        Method isReady = null;
+        Method isFinished = null;
+        try {
+            readListener = Class.forName("javax.servlet.ReadListener");
+            startAsync = HttpServletRequest.class.getMethod("startAsync");
+            complete = Class.forName("javax.servlet.AsyncContext").getMethod("complete");
+            setReadListener = ServletInputStream.class.getMethod("setReadListener", readListener);
+            isReady = ServletInputStream.class.getMethod("isReady");
+            isFinished = ServletInputStream.class.getMethod("isFinished");
+        } catch (ClassNotFoundException e) {
+            readListener = null;
+        } catch (NoSuchMethodException e) {
+            readListener = null;
+        }
+        READ_LISTENER = readListener;
+        START_ASYNC = startAsync;
+        COMPLETE = complete;
+        SET_READ_LISTENER = setReadListener;
+        IS_READY = isReady;
+        IS_FINISHED = isFinished;
+    }
+
+    private AsyncServletSupport() {
+    }
+
+    /**
+     * @return whether the container implements Servlet 3.1
+     */
+    static boolean isAvailable() {
+        return READ_LISTENER != null;
+    }
+
+    /**
+     * Puts the request in asynchronous mode.
+     *
+     * @return the {@code AsyncContext} to {@link #complete} once answered
+     */
+    static Object startAsync(HttpServletRequest request) throws IOException {
+        return invoke(START_ASYNC, request);
+    }
+
+    /**
+     * Registers the listener for the body; the container may call it at once.
+     */
+    static void setReadListener(ServletInputStream in, final Listener listener) throws IOException {
+        Object readListener = Proxy.newProxyInstance(READ_LISTENER.getClassLoader(), new Class<?>[] { READ_LISTENER },
+                new InvocationHandler() {
+                    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                        String name = method.getName();
+                        if ("onDataAvailable".equals(name)) {
+                            listener.onDataAvailable();
+                        } else if ("onAllDataRead".equals(name)) {
+                            listener.onAllDataRead();
+                        } else if ("onError".equals(name)) {
+                            listener.onError((Throwable) args[0]);
+                        } else if ("equals".equals(name)) {
+                            return proxy == args[0];
+                        } else if ("hashCode".equals(name)) {
+                            return System.identityHashCode(proxy);
+                        } else if ("toString".equals(name)) {
+                            return "ReadListener for " + listener;
+                        }
+                        return null;
+                    }
+                });
+        invoke(SET_READ_LISTENER, in, readListener);
+    }
+
+    static boolean isReady(ServletInputStream in) throws IOException {
+        return (Boolean) invoke(IS_READY, in);
+    }
+
+    static boolean isFinished(ServletInputStream in) throws IOException {
+        return (Boolean) invoke(IS_FINISHED, in);
+    }
+
+    static void complete(Object asyncContext) throws IOException {
+        invoke(COMPLETE, asyncContext);
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) throws IOException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
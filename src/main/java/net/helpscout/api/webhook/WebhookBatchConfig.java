@@ -0,0 +1,15 @@
+package net.helpscout.api.webhook;
+
+import lombok.Data;
+
+/**
+ * Settings of a {@link WebhookBatchHandler}: a batch is handed over once it
+ * holds {@code maxBatchSize} events, or {@code maxDelay} milliseconds after
+ * its first event arrived, whichever comes first.
+ */
+@Data
+public class WebhookBatchConfig {
+
+    private int maxBatchSize = 100;
+    private long maxDelay = 50;
+}
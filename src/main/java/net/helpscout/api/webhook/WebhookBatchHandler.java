@@ -0,0 +1,17 @@
+package net.helpscout.api.webhook;
+
+import java.util.List;
+
+/**
+ * Handles webhook events in batches, so writes downstream can be grouped
+ * into bulk operations. Called on the batching thread of the event type it
+ * is registered for, one batch at a time.
+ */
+public interface WebhookBatchHandler {
+
+    /**
+     * @param events in the order they were taken off the queue; if this
+     * throws, every event of the batch counts as failed
+     */
+    void handle(List<WebhookEvent> events) throws Exception;
+}
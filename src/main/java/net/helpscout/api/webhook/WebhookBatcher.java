@@ -0,0 +1,129 @@
+package net.helpscout.api.webhook;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accumulates events for a {@link WebhookBatchHandler} on its own thread.
+ * At most one batch is filled while the previous one is handled; workers
+ * adding to a full batch wait, which holds back the ingestor queue when the
+ * handler cannot keep up.
+ */
+class WebhookBatcher {
+
+    /**
+     * Told whether the batch holding an event was handled.
+     */
+    interface Completion {
+        void done(boolean succeeded);
+    }
+
+    private final WebhookBatchHandler handler;
+    private final int maxBatchSize;
+    private final long maxDelay;
+    private final Thread thread;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition ready = lock.newCondition();
+    private final Condition space = lock.newCondition();
+    private List<WebhookEvent> events;
+    private List<Completion> completions;
+    private long firstAddedAt;
+    private boolean closed;
+
+    WebhookBatcher(String name, WebhookBatchHandler handler, WebhookBatchConfig config) {
+        if (config.getMaxBatchSize() < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        if (config.getMaxDelay() < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative");
+        }
+        this.handler = handler;
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.maxDelay = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelay());
+        this.events = new ArrayList<WebhookEvent>(maxBatchSize);
+        this.completions = new ArrayList<Completion>(maxBatchSize);
+        this.thread = new Thread(this::run, "helpscout-webhook-batch-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void add(WebhookEvent event, Completion completion) throws InterruptedException {
+        lock.lock();
+        try {
+            while (events.size() >= maxBatchSize && !closed) {
+                space.await();
+            }
+            if (events.isEmpty()) {
+                firstAddedAt = System.nanoTime();
+            }
+            events.add(event);
+            completions.add(completion);
+            if (events.size() == 1 || events.size() >= maxBatchSize) {
+                ready.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            List<WebhookEvent> batch;
+            List<Completion> done;
+            lock.lock();
+            try {
+                while (events.isEmpty() && !closed) {
+                    ready.awaitUninterruptibly();
+                }
+                if (events.isEmpty()) {
+                    return;
+                }
+                long remaining;
+                while (events.size() < maxBatchSize && !closed
+                        && (remaining = firstAddedAt + maxDelay - System.nanoTime()) > 0) {
+                    ready.awaitNanos(remaining);
+                }
+                batch = events;
+                done = completions;
+                events = new ArrayList<WebhookEvent>(maxBatchSize);
+                completions = new ArrayList<Completion>(maxBatchSize);
+                space.signalAll();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            boolean succeeded = true;
+            try {
+                handler.handle(batch);
+            } catch (Exception e) {
+                succeeded = false;
+                LoggerFactory.getLogger(WebhookBatcher.class).warn("batch handler failed for {} events: {}", batch.size(), e);
+            }
+            for (Completion completion : done) {
+                completion.done(succeeded);
+            }
+        }
+    }
+
+    /**
+     * Hands over the events added so far and waits for the thread to finish.
+     */
+    void close(long timeoutNanos) throws InterruptedException {
+        lock.lock();
+        try {
+            closed = true;
+            ready.signal();
+            space.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        TimeUnit.NANOSECONDS.timedJoin(thread, timeoutNanos);
+    }
+}
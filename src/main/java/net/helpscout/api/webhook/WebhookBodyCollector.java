@@ -0,0 +1,87 @@
+package net.helpscout.api.webhook;
+
+import java.io.ByteArrayOutputStream;
+import java.security.GeneralSecurityException;
+
+/**
+ * Collects a webhook body delivered in chunks, e.g. by a non-blocking
+ * server, and verifies it once its last byte is read. The body is signed in
+ * {@link #finish()} with the Mac of the finishing thread: a non-blocking
+ * server interleaves the chunks of many requests on one thread, so no Mac is
+ * held while chunks arrive.
+ *
+ * A body declared or found to be larger than
+ * {@link WebhookSigner#MAX_BODY_SIZE} is not kept, and fails verification.
+ *
+ * Not thread-safe; chunks must be passed in order. Containers calling read
+ * callbacks on different threads order them, which is enough.
+ */
+public class WebhookBodyCollector {
+
+    private final String secretKey;
+    private final String signature;
+    private final String eventType;
+    private final ByteArrayOutputStream body;
+    private boolean oversized;
+
+    /**
+     * @param secretKey
+     * @param signature value of the X-HELPSCOUT-SIGNATURE header
+     * @param eventType value of the X-HELPSCOUT-EVENT header
+     * @param contentLength expected body length, or -1 if unknown
+     */
+    public WebhookBodyCollector(String secretKey, String signature, String eventType, int contentLength) {
+        this.secretKey = secretKey;
+        this.signature = signature;
+        this.eventType = eventType;
+        this.oversized = contentLength > WebhookSigner.MAX_BODY_SIZE;
+        this.body = new ByteArrayOutputStream(oversized ? 0 : WebhookSigner.initialCapacity(contentLength));
+    }
+
+    /**
+     * Adds the next chunk of the body.
+     *
+     * @param chunk
+     * @param offset
+     * @param length
+     */
+    public void update(byte[] chunk, int offset, int length) {
+        if (oversized) {
+            return;
+        }
+        if (body.size() + length > WebhookSigner.MAX_BODY_SIZE) {
+            oversized = true;
+            body.reset();
+            return;
+        }
+        body.write(chunk, offset, length);
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * Signs the body once it has been passed whole.
+     *
+     * @return the event, or null if the signature does not match or the body
+     * is too large
+     */
+    public WebhookEvent finish() {
+        if (oversized || signature == null) {
+            return null;
+        }
+        byte[] bytes = body.toByteArray();
+        byte[] computed;
+        try {
+            computed = WebhookSigner.mac(secretKey).doFinal(bytes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign webhook body", e);
+        }
+        return WebhookSigner.matches(computed, signature) ? new WebhookEvent(eventType, bytes) : null;
+    }
+}
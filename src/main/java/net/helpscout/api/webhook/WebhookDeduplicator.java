@@ -0,0 +1,202 @@
+package net.helpscout.api.webhook;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import net.helpscout.api.Webhook;
+
+/**
+ * Drops repeated deliveries of the same webhook. Help Scout retries a
+ * delivery with the same body, hence the same signature, so a delivery is
+ * fingerprinted by a 64-bit hash of its signature and event type.
+ *
+ * Fingerprints live in two fixed-size open-addressing tables of longs: new
+ * ones go to the current table and lookups check both. Every
+ * {@code window} milliseconds, or sooner once it holds {@code capacity}
+ * fingerprints, the older table is cleared and becomes the current one. A
+ * fingerprint is thus remembered for one to two windows, less only when more
+ * than {@code capacity} deliveries arrive within a window. Tables are kept at
+ * most half full, so lookups stay short and memory stays at about
+ * {@code 32 * capacity} bytes whatever the event rate.
+ *
+ * Two different deliveries may share a fingerprint with a probability of
+ * about one in 2<sup>64</sup>.
+ */
+public class WebhookDeduplicator {
+
+    public static final int DEFAULT_CAPACITY = 65536;
+    public static final long DEFAULT_WINDOW = TimeUnit.MINUTES.toMillis(10);
+
+    private static final long EMPTY = 0L;
+
+    private final long window;
+    private final int mask;
+    private final int maxEntries;
+
+    private long[] current;
+    private long[] previous;
+    private int size;
+    private long rotatedAt;
+
+    public WebhookDeduplicator() {
+        this(DEFAULT_CAPACITY, DEFAULT_WINDOW);
+    }
+
+    /**
+     * @param capacity fingerprints remembered per window, rounded up to a
+     * power of two
+     * @param windowMillis
+     */
+    public WebhookDeduplicator(int capacity, long windowMillis) {
+        if (capacity < 1 || windowMillis < 1) {
+            throw new IllegalArgumentException("capacity and window must be positive");
+        }
+        int tableSize = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 2;
+        this.mask = tableSize - 1;
+        this.maxEntries = tableSize / 2;
+        this.window = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.current = new long[tableSize];
+        this.previous = new long[tableSize];
+        this.rotatedAt = System.nanoTime();
+    }
+
+    /**
+     * @param webhook a verified webhook
+     * @return true if the same delivery was seen within the window
+     */
+    public boolean isDuplicate(Webhook webhook) {
+        return isDuplicate(webhook.getSignature(), webhook.getEventType());
+    }
+
+    /**
+     * Records the delivery and tells whether it was seen before.
+     *
+     * @param signature value of the X-HELPSCOUT-SIGNATURE header
+     * @param eventType value of the X-HELPSCOUT-EVENT header
+     * @return true if the same delivery was seen within the window; false
+     * for a first delivery or one without a signature
+     */
+    public synchronized boolean isDuplicate(String signature, String eventType) {
+        if (signature == null) {
+            return false;
+        }
+        long fingerprint = fingerprint(signature, eventType);
+        long now = rotateIfDue();
+        if (contains(fingerprint)) {
+            return true;
+        }
+        add(fingerprint, now);
+        return false;
+    }
+
+    /**
+     * Forgets a delivery recorded by {@link #isDuplicate}, so that a retry of
+     * one that could not be accepted goes through.
+     *
+     * @param signature value of the X-HELPSCOUT-SIGNATURE header
+     * @param eventType value of the X-HELPSCOUT-EVENT header
+     */
+    public synchronized void release(String signature, String eventType) {
+        if (signature == null) {
+            return;
+        }
+        long fingerprint = fingerprint(signature, eventType);
+        if (remove(current, fingerprint)) {
+            size--;
+        } else {
+            remove(previous, fingerprint);
+        }
+    }
+
+    private long rotateIfDue() {
+        long now = System.nanoTime();
+        if (now - rotatedAt >= window) {
+            rotate(now);
+        }
+        return now;
+    }
+
+    private boolean contains(long fingerprint) {
+        return contains(previous, fingerprint) || contains(current, fingerprint);
+    }
+
+    private void add(long fingerprint, long now) {
+        int slot = (int) fingerprint & mask;
+        while (current[slot] != EMPTY) {
+            slot = (slot + 1) & mask;
+        }
+        current[slot] = fingerprint;
+        if (++size >= maxEntries) {
+            rotate(now);
+        }
+    }
+
+    private boolean contains(long[] table, long fingerprint) {
+        int slot = (int) fingerprint & mask;
+        while (table[slot] != EMPTY) {
+            if (table[slot] == fingerprint) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Deletes by shifting back the following entries of the probe run that
+     * may move into the hole, so lookups never stop short of them.
+     */
+    private boolean remove(long[] table, long fingerprint) {
+        int hole = (int) fingerprint & mask;
+        while (table[hole] != fingerprint) {
+            if (table[hole] == EMPTY) {
+                return false;
+            }
+            hole = (hole + 1) & mask;
+        }
+        for (int slot = (hole + 1) & mask; table[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = (int) table[slot] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = EMPTY;
+        return true;
+    }
+
+    private void rotate(long now) {
+        long[] cleared = previous;
+        Arrays.fill(cleared, EMPTY);
+        previous = current;
+        current = cleared;
+        size = 0;
+        rotatedAt = now;
+    }
+
+    /**
+     * FNV-1a over both strings, finished with the MurmurHash3 mixer so the
+     * low bits used as the slot are well spread.
+     */
+    static long fingerprint(String signature, String eventType) {
+        long hash = 0xcbf29ce484222325L;
+        hash = update(hash, signature);
+        hash = (hash ^ '\n') * 0x100000001b3L;
+        if (eventType != null) {
+            hash = update(hash, eventType);
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1L : hash;
+    }
+
+    private static long update(long hash, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
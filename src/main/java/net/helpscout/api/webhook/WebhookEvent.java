@@ -0,0 +1,129 @@
+package net.helpscout.api.webhook;
+
+import java.nio.charset.Charset;
+
+import net.helpscout.api.Parser;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+
+/**
+ * A verified webhook delivery: the event type header and the raw body bytes.
+ * The body is decoded once, on first access, so handlers sharing an event
+ * share the parsed object and must not modify it.
+ */
+public class WebhookEvent {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final String eventType;
+    private final WebhookEventType type;
+    private final byte[] body;
+    private final long receivedAt;
+    private final long offset;
+
+    private volatile Object payload;
+
+    public WebhookEvent(String eventType, byte[] body) {
+        this(eventType, body, System.currentTimeMillis());
+    }
+
+    public WebhookEvent(String eventType, byte[] body, long receivedAt) {
+        this(eventType, body, receivedAt, -1);
+    }
+
+    WebhookEvent(String eventType, byte[] body, long receivedAt, long offset) {
+        this.eventType = eventType;
+        this.type = WebhookEventType.findByLabel(eventType);
+        this.body = body;
+        this.receivedAt = receivedAt;
+        this.offset = offset;
+    }
+
+    /**
+     * @return value of the X-HELPSCOUT-EVENT header, e.g. convo.created
+     */
+    public String getEventType() {
+        return eventType;
+    }
+
+    /**
+     * @return the type of the event, or null if the event type is unknown
+     */
+    public WebhookEventType getType() {
+        return type;
+    }
+
+    /**
+     * @return the raw body, exactly as signed
+     */
+    public byte[] getBody() {
+        return body;
+    }
+
+    /**
+     * @return time the delivery was accepted, in milliseconds since the epoch
+     */
+    public long getReceivedAt() {
+        return receivedAt;
+    }
+
+    /**
+     * @return position of the event in the {@link WebhookJournal}, or -1 when
+     * it was not journaled
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    WebhookEvent withOffset(long offset) {
+        return new WebhookEvent(eventType, body, receivedAt, offset);
+    }
+
+    public String getJson() {
+        return new String(body, UTF_8);
+    }
+
+    /**
+     * @return the body decoded to the model class of the event type, or null
+     * if the type is unknown or has no model class
+     */
+    public Object getPayload() {
+        if (type == null || type.getPayloadType() == null) {
+            return null;
+        }
+        return decode(type.getPayloadType());
+    }
+
+    /**
+     * @param payloadType the model class to decode the body to
+     * @return the decoded body
+     */
+    public <T> T getPayload(Class<T> payloadType) {
+        return decode(payloadType);
+    }
+
+    public Conversation getConversation() {
+        return decode(Conversation.class);
+    }
+
+    public Customer getCustomer() {
+        return decode(Customer.class);
+    }
+
+    private <T> T decode(Class<T> type) {
+        Object parsed = payload;
+        if (parsed == null) {
+            synchronized (this) {
+                parsed = payload;
+                if (parsed == null) {
+                    parsed = Parser.getInstance().getObject(getJson(), type);
+                    payload = parsed;
+                }
+            }
+        }
+        if (!type.isInstance(parsed)) {
+            return Parser.getInstance().getObject(getJson(), type);
+        }
+        return type.cast(parsed);
+    }
+}
@@ -0,0 +1,72 @@
+package net.helpscout.api.webhook;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+
+/**
+ * Event types sent in the X-HELPSCOUT-EVENT header, with the model class
+ * their payload decodes to.
+ */
+public enum WebhookEventType {
+
+    ConversationAssigned("convo.assigned", Conversation.class),
+    ConversationCreated("convo.created", Conversation.class),
+    ConversationDeleted("convo.deleted", Conversation.class),
+    ConversationMerged("convo.merged", Conversation.class),
+    ConversationMoved("convo.moved", Conversation.class),
+    ConversationStatus("convo.status", Conversation.class),
+    ConversationTags("convo.tags", Conversation.class),
+    ConversationCustomerReplyCreated("convo.customer.reply.created", Conversation.class),
+    ConversationAgentReplyCreated("convo.agent.reply.created", Conversation.class),
+    ConversationNoteCreated("convo.note.created", Conversation.class),
+    CustomerCreated("customer.created", Customer.class),
+    SatisfactionRatings("satisfaction.ratings", null),
+    Test("helpscout.test", null);
+
+    private static final Map<String, WebhookEventType> BY_LABEL = new HashMap<String, WebhookEventType>();
+
+    static {
+        for (WebhookEventType item : values()) {
+            BY_LABEL.put(item.label, item);
+        }
+    }
+
+    private final String label;
+    private final Class<?> payloadType;
+
+    private WebhookEventType(String label, Class<?> payloadType) {
+        this.label = label;
+        this.payloadType = payloadType;
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    /**
+     * @return the model class the payload decodes to, or null if the payload
+     * has no model class
+     */
+    public Class<?> getPayloadType() {
+        return this.payloadType;
+    }
+
+    public boolean isConversationEvent() {
+        return payloadType == Conversation.class;
+    }
+
+    public boolean isCustomerEvent() {
+        return payloadType == Customer.class;
+    }
+
+    /**
+     * @param label value of the X-HELPSCOUT-EVENT header
+     * @return the matching type, or null if the event type is unknown
+     */
+    public static WebhookEventType findByLabel(String label) {
+        return label != null ? BY_LABEL.get(label) : null;
+    }
+}
@@ -0,0 +1,11 @@
+package net.helpscout.api.webhook;
+
+/**
+ * Handles webhook events of the types it is registered for. Called on a
+ * worker thread of the {@link WebhookIngestor}; may be called concurrently
+ * for different events.
+ */
+public interface WebhookHandler {
+
+    void handle(WebhookEvent event) throws Exception;
+}
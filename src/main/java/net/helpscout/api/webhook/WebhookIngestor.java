@@ -0,0 +1,546 @@
+package net.helpscout.api.webhook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.helpscout.api.Webhook;
+
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decouples webhook deliveries from their handling. {@link #accept} verifies
+ * the signature, queues the raw body and returns, so the servlet can
+ * acknowledge right away; a pool of worker threads takes events off the
+ * queue and passes them to the handlers registered for their event type.
+ *
+ * The queue is a {@link ConcurrentLinkedQueue} bounded by an atomic counter,
+ * so producers never lock. When it is full, deliveries are rejected and the
+ * servlet should answer with an error status, letting Help Scout retry later.
+ */
+public class WebhookIngestor implements Closeable {
+
+    /**
+     * Outcome of {@link WebhookIngestor#accept}.
+     */
+    public enum Result {
+        /** Queued for handling; acknowledge with 200. */
+        ACCEPTED(200),
+        /** Signature did not match; answer with 403. */
+        INVALID(403),
+        /** Already accepted within the deduplication window; acknowledge with 200. */
+        DUPLICATE(200),
+        /** Queue full or ingestor closed; answer with 503 so the delivery is retried. */
+        REJECTED(503);
+
+        private final int status;
+
+        private Result(int status) {
+            this.status = status;
+        }
+
+        /**
+         * @return the HTTP status to answer the delivery with
+         */
+        public int getStatus() {
+            return status;
+        }
+    }
+
+    private final String secretKey;
+    private final WebhookIngestorConfig config;
+    private final WebhookJournal journal;
+    private volatile WebhookDeduplicator deduplicator;
+    private final ConcurrentMap<String, List<WebhookHandler>> handlers =
+            new ConcurrentHashMap<String, List<WebhookHandler>>();
+    private final List<WebhookHandler> everyEvent = new CopyOnWriteArrayList<WebhookHandler>();
+    private final ConcurrentMap<String, List<WebhookBatcher>> batchers =
+            new ConcurrentHashMap<String, List<WebhookBatcher>>();
+
+    private final Queue<WebhookEvent> queue = new ConcurrentLinkedQueue<WebhookEvent>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Semaphore available = new Semaphore(0);
+    private final Thread[] workers;
+    private volatile boolean closed;
+
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    public WebhookIngestor(String secretKey) {
+        this(secretKey, new WebhookIngestorConfig());
+    }
+
+    public WebhookIngestor(String secretKey, WebhookIngestorConfig config) {
+        this(secretKey, config, null);
+    }
+
+    /**
+     * Creates an ingestor that journals every delivery before acknowledging
+     * it. Call {@link #replay()} once the handlers are registered to handle
+     * the events a previous run left unhandled.
+     *
+     * @param secretKey
+     * @param config
+     * @param journal may be null; it is not closed by {@link #close()}
+     */
+    public WebhookIngestor(String secretKey, WebhookIngestorConfig config, WebhookJournal journal) {
+        if (config.getQueueCapacity() < 1 || config.getWorkers() < 1) {
+            throw new IllegalArgumentException("queueCapacity and workers must be positive");
+        }
+        this.secretKey = secretKey;
+        this.config = config;
+        this.journal = journal;
+        this.workers = new Thread[config.getWorkers()];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::work, "helpscout-webhook-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Registers a handler for an event type, e.g. {@code convo.created}.
+     * Several handlers may be registered for the same type; they are called
+     * in registration order.
+     *
+     * @param eventType
+     * @param handler
+     */
+    public void register(String eventType, WebhookHandler handler) {
+        registered(handlers, eventType).add(handler);
+    }
+
+    /**
+     * Registers a handler receiving the events of a type in batches. An
+     * event counts as handled, and is marked processed in the journal, once
+     * its batch has been handled.
+     *
+     * @param eventType
+     * @param handler
+     * @param config
+     */
+    public void registerBatch(String eventType, WebhookBatchHandler handler, WebhookBatchConfig config) {
+        registered(batchers, eventType).add(new WebhookBatcher(eventType, handler, config));
+    }
+
+    public void registerBatch(WebhookEventType type, WebhookBatchHandler handler, WebhookBatchConfig config) {
+        registerBatch(type.getLabel(), handler, config);
+    }
+
+    /**
+     * Registers a handler receiving the payloads of the events of a type in
+     * batches, decoded to {@code payloadType}, e.g. {@code Conversation.class}
+     * for {@code convo.*} events or {@code Customer.class} for
+     * {@code customer.*} ones.
+     *
+     * @param type
+     * @param payloadType
+     * @param handler
+     * @param config
+     */
+    public <T> void registerBatch(WebhookEventType type, final Class<T> payloadType,
+                                  final WebhookPayloadBatchHandler<T> handler, WebhookBatchConfig config) {
+        registerBatch(type.getLabel(), events -> {
+            List<T> payloads = new ArrayList<T>(events.size());
+            for (WebhookEvent event : events) {
+                payloads.add(event.getPayload(payloadType));
+            }
+            handler.handle(payloads);
+        }, config);
+    }
+
+    private static <T> List<T> registered(ConcurrentMap<String, List<T>> map, String eventType) {
+        List<T> registered = map.get(eventType);
+        if (registered == null) {
+            List<T> created = new CopyOnWriteArrayList<T>();
+            registered = map.putIfAbsent(eventType, created);
+            if (registered == null) {
+                registered = created;
+            }
+        }
+        return registered;
+    }
+
+    /**
+     * Registers a handler for an event type.
+     *
+     * @param type
+     * @param handler
+     */
+    public void register(WebhookEventType type, WebhookHandler handler) {
+        register(type.getLabel(), handler);
+    }
+
+    /**
+     * Registers a handler for every event, called after the handlers of the
+     * event type, e.g. a {@link WebhookRouter}.
+     *
+     * @param handler
+     */
+    public void register(WebhookHandler handler) {
+        everyEvent.add(handler);
+    }
+
+    /**
+     * Drops deliveries already accepted, which Help Scout sends again when it
+     * did not get an acknowledgement in time.
+     *
+     * @param deduplicator may be null to queue every valid delivery
+     */
+    public void setDeduplicator(WebhookDeduplicator deduplicator) {
+        this.deduplicator = deduplicator;
+    }
+
+    /**
+     * Verifies the delivery and queues it.
+     *
+     * @param request
+     * @return whether the delivery was queued, and if not why
+     */
+    public Result accept(HttpServletRequest request) {
+        Webhook webhook = new Webhook(secretKey, request);
+        if (!webhook.isValid()) {
+            invalid.incrementAndGet();
+            return Result.INVALID;
+        }
+        return admit(new WebhookEvent(webhook.getEventType(), webhook.getBody()), webhook.getSignature());
+    }
+
+    /**
+     * Reads the delivery without blocking the container thread, verifies the
+     * body once read, then queues it and answers with the status of the
+     * {@link Result}. Needs a Servlet 3.1 container and a servlet declared
+     * with async support; in older containers the body is read with
+     * {@link #accept(HttpServletRequest)}.
+     *
+     * @param request
+     * @param response
+     * @throws IOException
+     */
+    public void acceptAsync(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        if (!AsyncServletSupport.isAvailable()) {
+            response.setStatus(accept(request).getStatus());
+            return;
+        }
+        final Object asyncContext = AsyncServletSupport.startAsync(request);
+        final ServletInputStream in = request.getInputStream();
+        final WebhookBodyCollector collector = new WebhookBodyCollector(secretKey,
+                request.getHeader(WebhookSigner.SIGNATURE_HEADER), request.getHeader(WebhookSigner.EVENT_HEADER),
+                request.getContentLength());
+        AsyncServletSupport.setReadListener(in, new AsyncServletSupport.Listener() {
+            private final byte[] buffer = new byte[4096];
+
+            public void onDataAvailable() throws IOException {
+                while (AsyncServletSupport.isReady(in) && !AsyncServletSupport.isFinished(in)) {
+                    int read = in.read(buffer);
+                    if (read == -1) {
+                        return;
+                    }
+                    collector.update(buffer, 0, read);
+                }
+            }
+
+            public void onAllDataRead() throws IOException {
+                response.setStatus(accept(collector).getStatus());
+                AsyncServletSupport.complete(asyncContext);
+            }
+
+            public void onError(Throwable t) {
+                LoggerFactory.getLogger(WebhookIngestor.class).warn("cannot read {}: {}", collector.getEventType(), t);
+                try {
+                    response.setStatus(Result.REJECTED.getStatus());
+                    AsyncServletSupport.complete(asyncContext);
+                } catch (IOException e) {
+                    LoggerFactory.getLogger(WebhookIngestor.class).debug("cannot complete request", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Verifies and queues a body collected by a non-blocking server.
+     *
+     * @param collector holding the whole body
+     * @return whether the delivery was queued, and if not why
+     */
+    public Result accept(WebhookBodyCollector collector) {
+        WebhookEvent event = collector.finish();
+        if (event == null) {
+            invalid.incrementAndGet();
+            return Result.INVALID;
+        }
+        return admit(event, collector.getSignature());
+    }
+
+    private Result admit(WebhookEvent event, String signature) {
+        WebhookDeduplicator deduplicator = this.deduplicator;
+        if (deduplicator != null && deduplicator.isDuplicate(signature, event.getEventType())) {
+            duplicates.incrementAndGet();
+            return Result.DUPLICATE;
+        }
+        Result result = offer(event);
+        // claimed before queuing so a concurrent retry is dropped, released
+        // if refused so that a later retry goes through
+        if (deduplicator != null && result != Result.ACCEPTED) {
+            deduplicator.release(signature, event.getEventType());
+        }
+        return result;
+    }
+
+    /**
+     * Queues an already verified event, journaling it first if the ingestor
+     * has a journal.
+     *
+     * @param event
+     * @return {@link Result#ACCEPTED}, or {@link Result#REJECTED} when the
+     * queue is full, the event could not be journaled or the ingestor closed
+     */
+    public Result offer(WebhookEvent event) {
+        if (closed) {
+            rejected.incrementAndGet();
+            return Result.REJECTED;
+        }
+        int size = depth.incrementAndGet();
+        if (size > config.getQueueCapacity()) {
+            depth.decrementAndGet();
+            rejected.incrementAndGet();
+            return Result.REJECTED;
+        }
+        if (journal != null) {
+            try {
+                event = event.withOffset(journal.append(event));
+            } catch (IOException e) {
+                depth.decrementAndGet();
+                rejected.incrementAndGet();
+                LoggerFactory.getLogger(WebhookIngestor.class).warn("cannot journal {}: {}", event.getEventType(), e);
+                return Result.REJECTED;
+            }
+        }
+        enqueue(event, size);
+        if (closed && queue.remove(event)) {
+            // close() ran meanwhile, its workers may be gone already; an event
+            // no longer in the queue was taken by one of them and is handled
+            depth.decrementAndGet();
+            accepted.decrementAndGet();
+            rejected.incrementAndGet();
+            if (journal != null && event.getOffset() >= 0) {
+                journal.markProcessed(event.getOffset());
+            }
+            return Result.REJECTED;
+        }
+        return Result.ACCEPTED;
+    }
+
+    private void enqueue(WebhookEvent event, int size) {
+        queue.offer(event);
+        available.release();
+        accepted.incrementAndGet();
+        updateMaxDepth(size);
+    }
+
+    /**
+     * Queues the journaled events a previous run acknowledged but did not
+     * handle. They were already acknowledged, so they are queued regardless
+     * of capacity. Call once, after registering the handlers.
+     *
+     * @return number of events queued
+     * @throws IOException if the journal cannot be read
+     */
+    public int replay() throws IOException {
+        if (journal == null) {
+            return 0;
+        }
+        List<WebhookEvent> events = journal.unprocessed();
+        for (WebhookEvent event : events) {
+            enqueue(event, depth.incrementAndGet());
+        }
+        return events.size();
+    }
+
+    private void updateMaxDepth(int size) {
+        int max;
+        do {
+            max = maxDepth.get();
+        } while (size > max && !maxDepth.compareAndSet(max, size));
+    }
+
+    private void work() {
+        while (true) {
+            try {
+                available.acquire();
+            } catch (InterruptedException e) {
+                return;
+            }
+            WebhookEvent event = queue.poll();
+            if (event == null) {
+                // released by close() to wake the worker up
+                return;
+            }
+            depth.decrementAndGet();
+            dispatch(event);
+        }
+    }
+
+    private void dispatch(WebhookEvent event) {
+        List<WebhookHandler> registered = handlers.get(event.getEventType());
+        boolean succeeded = true;
+        if (registered != null) {
+            succeeded = dispatch(event, registered);
+        }
+        if (!everyEvent.isEmpty()) {
+            succeeded &= dispatch(event, everyEvent);
+        }
+        List<WebhookBatcher> batched = batchers.get(event.getEventType());
+        if (batched == null || batched.isEmpty()) {
+            complete(event, succeeded);
+            return;
+        }
+        WebhookBatcher.Completion completion = new BatchCompletion(event, batched.size(), succeeded);
+        for (WebhookBatcher batcher : batched) {
+            try {
+                batcher.add(event, completion);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void complete(WebhookEvent event, boolean succeeded) {
+        (succeeded ? processed : failed).incrementAndGet();
+        if (journal != null && event.getOffset() >= 0) {
+            journal.markProcessed(event.getOffset());
+        }
+    }
+
+    /**
+     * Completes an event once every batch it was added to is handled.
+     */
+    private class BatchCompletion implements WebhookBatcher.Completion {
+        private final WebhookEvent event;
+        private final AtomicInteger remaining;
+        private volatile boolean succeeded;
+
+        private BatchCompletion(WebhookEvent event, int batches, boolean succeeded) {
+            this.event = event;
+            this.remaining = new AtomicInteger(batches);
+            this.succeeded = succeeded;
+        }
+
+        public void done(boolean succeeded) {
+            if (!succeeded) {
+                this.succeeded = false;
+            }
+            if (remaining.decrementAndGet() == 0) {
+                complete(event, this.succeeded);
+            }
+        }
+    }
+
+    private boolean dispatch(WebhookEvent event, List<WebhookHandler> registered) {
+        boolean succeeded = true;
+        for (WebhookHandler handler : registered) {
+            try {
+                handler.handle(event);
+            } catch (Exception e) {
+                succeeded = false;
+                LoggerFactory.getLogger(WebhookIngestor.class).warn("handler failed for {}: {}", event.getEventType(), e);
+            }
+        }
+        return succeeded;
+    }
+
+    /**
+     * @return number of events waiting for a worker
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return highest queue depth seen
+     */
+    public int getMaxQueueDepth() {
+        return maxDepth.get();
+    }
+
+    public long getAcceptedCount() {
+        return accepted.get();
+    }
+
+    /**
+     * @return deliveries turned away because the queue was full
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    public long getInvalidCount() {
+        return invalid.get();
+    }
+
+    /**
+     * @return deliveries dropped by the deduplicator
+     */
+    public long getDuplicateCount() {
+        return duplicates.get();
+    }
+
+    public long getProcessedCount() {
+        return processed.get();
+    }
+
+    /**
+     * @return events for which at least one handler threw
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * Stops accepting deliveries and waits up to
+     * {@link WebhookIngestorConfig#getShutdownTimeout()} for the queued ones to
+     * be handled, handing over partly filled batches.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        available.release(workers.length);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(config.getShutdownTimeout());
+        try {
+            for (Thread worker : workers) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+                }
+                worker.interrupt();
+            }
+            for (List<WebhookBatcher> batched : batchers.values()) {
+                for (WebhookBatcher batcher : batched) {
+                    batcher.close(Math.max(0, deadline - System.nanoTime()));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package net.helpscout.api.webhook;
+
+import lombok.Data;
+
+/**
+ * Settings for {@link WebhookIngestor}. {@code shutdownTimeout} is in
+ * milliseconds.
+ */
+@Data
+public class WebhookIngestorConfig {
+
+    private int queueCapacity = 10000;
+    private int workers = 4;
+    private long shutdownTimeout = 10000;
+}
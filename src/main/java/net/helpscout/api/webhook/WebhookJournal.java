@@ -0,0 +1,361 @@
+package net.helpscout.api.webhook;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, memory-mapped log of verified webhook deliveries, so events
+ * acknowledged to Help Scout survive a crash before they are handled.
+ *
+ * Events are appended to fixed-size segment files in {@code directory}. An
+ * append returns once the event is on disk; a background thread forces the
+ * mapped segment every {@link WebhookJournalConfig#getFlushInterval()}
+ * milliseconds, making all appends since the previous flush durable with one
+ * fsync (group commit).
+ *
+ * Handled events are reported with {@link #markProcessed(long)}. The offset
+ * below which every event has been handled is persisted with each flush; on
+ * restart {@link #unprocessed()} returns the events from that offset on, and
+ * segments entirely below it are deleted as new ones are created.
+ *
+ * Each record is laid out as length, CRC32 of type and body, receive time,
+ * type length, type and body; a record failing its checksum ends the log.
+ */
+public class WebhookJournal implements Closeable {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String OFFSET_FILE = "processed.offset";
+    private static final int HEADER_SIZE = 20;
+    private static final int END_OF_SEGMENT = -1;
+
+    private final File directory;
+    private final int segmentSize;
+    private final long flushInterval;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private long segmentBase;
+    private long written;
+
+    private volatile long durable;
+    private final Object flushed = new Object();
+    private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<Long>();
+    private final FileChannel offsetChannel;
+    private final MappedByteBuffer offsetBuffer;
+    private final long recoveredOffset;
+    private final Thread flusher;
+    private volatile boolean closed;
+    private volatile boolean released;
+
+    public WebhookJournal(File directory) throws IOException {
+        this(directory, new WebhookJournalConfig());
+    }
+
+    public WebhookJournal(File directory, WebhookJournalConfig config) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create journal directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = config.getSegmentSize();
+        this.flushInterval = TimeUnit.MILLISECONDS.toNanos(config.getFlushInterval());
+
+        offsetChannel = new RandomAccessFile(new File(directory, OFFSET_FILE), "rw").getChannel();
+        offsetBuffer = offsetChannel.map(FileChannel.MapMode.READ_WRITE, 0, 8);
+        recoveredOffset = offsetBuffer.getLong(0);
+
+        long[] bases = segmentBases();
+        openSegment(bases.length == 0 ? recoveredOffset - recoveredOffset % segmentSize : bases[bases.length - 1]);
+        recoverPosition();
+        durable = written;
+        for (WebhookEvent event : unprocessed()) {
+            pending.add(event.getOffset());
+        }
+
+        flusher = new Thread(this::flushLoop, "helpscout-webhook-journal");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Appends an event and waits until it is on disk.
+     *
+     * @param event
+     * @return the offset of the event
+     * @throws IOException
+     */
+    public long append(WebhookEvent event) throws IOException {
+        byte[] type = event.getEventType() == null ? new byte[0] : event.getEventType().getBytes(UTF_8);
+        byte[] body = event.getBody();
+        int length = HEADER_SIZE + type.length + body.length;
+        if (length > segmentSize) {
+            throw new IOException("Event of " + length + " bytes does not fit a journal segment");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(body);
+
+        long offset;
+        long end;
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Journal is closed");
+            }
+            if (segment.remaining() < length) {
+                roll();
+            }
+            offset = segmentBase + segment.position();
+            segment.putInt(length)
+                   .putInt((int) crc.getValue())
+                   .putLong(event.getReceivedAt())
+                   .putInt(type.length)
+                   .put(type)
+                   .put(body);
+            end = segmentBase + segment.position();
+            written = end;
+            pending.add(offset);
+        }
+        awaitDurable(end);
+        return offset;
+    }
+
+    /**
+     * Records that the event at {@code offset} has been handled.
+     *
+     * @param offset
+     */
+    public void markProcessed(long offset) {
+        pending.remove(offset);
+    }
+
+    /**
+     * @return the offset below which every event has been handled
+     */
+    public synchronized long getProcessedOffset() {
+        Long first = pending.ceiling(Long.MIN_VALUE);
+        return first != null ? first : written;
+    }
+
+    /**
+     * Reads the events appended but not handled before the journal was last
+     * closed, or before the process died.
+     *
+     * @return the events, in append order
+     * @throws IOException
+     */
+    public List<WebhookEvent> unprocessed() throws IOException {
+        List<WebhookEvent> events = new ArrayList<WebhookEvent>();
+        long offset = recoveredOffset;
+        long end;
+        synchronized (this) {
+            end = Math.min(written, segmentBase + segment.position());
+        }
+        while (offset < end) {
+            long base = offset - offset % segmentSize;
+            File file = segmentFile(base);
+            if (!file.exists()) {
+                offset = base + segmentSize;
+                continue;
+            }
+            FileChannel readChannel = new RandomAccessFile(file, "r").getChannel();
+            try {
+                MappedByteBuffer buffer = readChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentSize);
+                int position = (int) (offset - base);
+                while (base + position < end && position + HEADER_SIZE <= segmentSize) {
+                    WebhookEvent event = read(buffer, position, base + position);
+                    if (event == null) {
+                        break;
+                    }
+                    events.add(event);
+                    position += buffer.getInt(position);
+                }
+            } finally {
+                readChannel.close();
+            }
+            offset = base + segmentSize;
+        }
+        return events;
+    }
+
+    /**
+     * @return the event recorded at {@code position}, or null at the end of
+     * the segment or a record failing its checksum
+     */
+    private static WebhookEvent read(MappedByteBuffer buffer, int position, long offset) {
+        int length = buffer.getInt(position);
+        if (length < HEADER_SIZE || position + length > buffer.capacity()) {
+            return null;
+        }
+        int checksum = buffer.getInt(position + 4);
+        long receivedAt = buffer.getLong(position + 8);
+        int typeLength = buffer.getInt(position + 16);
+        if (typeLength < 0 || typeLength > length - HEADER_SIZE) {
+            return null;
+        }
+        byte[] type = new byte[typeLength];
+        byte[] body = new byte[length - HEADER_SIZE - typeLength];
+        buffer.position(position + HEADER_SIZE);
+        buffer.get(type);
+        buffer.get(body);
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(body);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+        return new WebhookEvent(new String(type, UTF_8), body, receivedAt, offset);
+    }
+
+    private void recoverPosition() throws IOException {
+        int position = 0;
+        while (position + HEADER_SIZE <= segmentSize) {
+            WebhookEvent event = read(segment, position, segmentBase + position);
+            if (event == null) {
+                break;
+            }
+            position += segment.getInt(position);
+        }
+        // clear whatever a crash left half written, so it is not mistaken for a record later
+        for (int i = position; i < Math.min(segmentSize, position + HEADER_SIZE); i++) {
+            segment.put(i, (byte) 0);
+        }
+        segment.position(position);
+        written = segmentBase + position;
+    }
+
+    private void roll() throws IOException {
+        if (segment.remaining() >= 4) {
+            segment.putInt(END_OF_SEGMENT);
+        }
+        segment.force();
+        channel.close();
+        openSegment(segmentBase + segmentSize);
+        written = segmentBase;
+        deleteProcessedSegments();
+    }
+
+    private void openSegment(long base) throws IOException {
+        channel = new RandomAccessFile(segmentFile(base), "rw").getChannel();
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        segmentBase = base;
+    }
+
+    private void deleteProcessedSegments() {
+        long processed = getProcessedOffset();
+        for (long base : segmentBases()) {
+            if (base + segmentSize <= processed && base != segmentBase) {
+                segmentFile(base).delete();
+            }
+        }
+    }
+
+    private long[] segmentBases() {
+        String[] names = directory.list(new FilenameFilter() {
+            public boolean accept(File dir, String name) {
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }
+        });
+        long[] bases = new long[names == null ? 0 : names.length];
+        for (int i = 0; i < bases.length; i++) {
+            bases[i] = Long.parseLong(names[i].substring(SEGMENT_PREFIX.length(), names[i].length() - SEGMENT_SUFFIX.length()));
+        }
+        Arrays.sort(bases);
+        return bases;
+    }
+
+    private File segmentFile(long base) {
+        return new File(directory, String.format("%s%020d%s", SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+    }
+
+    private void awaitDurable(long end) throws IOException {
+        synchronized (flushed) {
+            while (durable < end && !released) {
+                try {
+                    flushed.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the journal to flush");
+                }
+            }
+        }
+        if (durable < end) {
+            throw new IOException("Journal closed before the event was flushed");
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            LockSupport.parkNanos(flushInterval);
+            flush();
+        }
+    }
+
+    /**
+     * Called by the flusher thread only, and by {@link #close()} once it has
+     * stopped, so flushes never overlap.
+     */
+    private void flush() {
+        long target;
+        long processed;
+        MappedByteBuffer current;
+        synchronized (this) {
+            target = written;
+            current = segment;
+            processed = getProcessedOffset();
+        }
+        if (target > durable) {
+            current.force();
+            durable = target;
+            synchronized (flushed) {
+                flushed.notifyAll();
+            }
+        }
+        if (offsetBuffer.getLong(0) != processed) {
+            offsetBuffer.putLong(0, processed);
+            offsetBuffer.force();
+        }
+    }
+
+    /**
+     * Flushes pending appends and the processed offset, then releases the
+     * files. Events not marked processed are returned by
+     * {@link #unprocessed()} when the journal is opened again.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flusher.interrupt();
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // the flusher is gone, so this is the last flush
+        flush();
+        released = true;
+        synchronized (flushed) {
+            flushed.notifyAll();
+        }
+        channel.close();
+        offsetChannel.close();
+    }
+}
@@ -0,0 +1,15 @@
+package net.helpscout.api.webhook;
+
+import lombok.Data;
+
+/**
+ * Settings for {@link WebhookJournal}. {@code segmentSize} is in bytes and
+ * bounds the size of a single event; {@code flushInterval} is the longest
+ * time, in milliseconds, an append waits for the group commit carrying it.
+ */
+@Data
+public class WebhookJournalConfig {
+
+    private int segmentSize = 64 * 1024 * 1024;
+    private long flushInterval = 2;
+}
@@ -0,0 +1,19 @@
+package net.helpscout.api.webhook;
+
+import java.util.List;
+
+/**
+ * Handles the decoded payloads of webhook events in batches, e.g. a list of
+ * conversations or customers to save in one bulk operation. Called like a
+ * {@link WebhookBatchHandler}.
+ *
+ * @param <T> the model class the payloads are decoded to
+ */
+public interface WebhookPayloadBatchHandler<T> {
+
+    /**
+     * @param payloads in the order their events were taken off the queue;
+     * if this throws, every event of the batch counts as failed
+     */
+    void handle(List<T> payloads) throws Exception;
+}
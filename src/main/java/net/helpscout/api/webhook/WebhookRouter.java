@@ -0,0 +1,59 @@
+package net.helpscout.api.webhook;
+
+import java.util.Arrays;
+
+/**
+ * Routes each webhook event to the handler of its {@link WebhookEventType}
+ * with a single array lookup. Events of a type without a handler, or of a
+ * type this library does not know, go to the fallback handler, if any.
+ *
+ * Handlers can be added at any time; a router may be shared by threads. It
+ * is itself a {@link WebhookHandler}, so it can be registered with a
+ * {@link WebhookIngestor} or called directly.
+ */
+public class WebhookRouter implements WebhookHandler {
+
+    private volatile WebhookHandler[] handlers = new WebhookHandler[WebhookEventType.values().length];
+    private volatile WebhookHandler fallback;
+
+    /**
+     * Sets the handler of an event type, replacing any previous one.
+     *
+     * @param type
+     * @param handler
+     * @return this router
+     */
+    public synchronized WebhookRouter on(WebhookEventType type, WebhookHandler handler) {
+        WebhookHandler[] updated = Arrays.copyOf(handlers, handlers.length);
+        updated[type.ordinal()] = handler;
+        handlers = updated;
+        return this;
+    }
+
+    /**
+     * Sets the handler of events no other handler is set for.
+     *
+     * @param handler
+     * @return this router
+     */
+    public WebhookRouter otherwise(WebhookHandler handler) {
+        fallback = handler;
+        return this;
+    }
+
+    /**
+     * Passes the event to the handler of its type, or to the fallback handler.
+     * Events without either are ignored.
+     */
+    @Override
+    public void handle(WebhookEvent event) throws Exception {
+        WebhookEventType type = event.getType();
+        WebhookHandler handler = type != null ? handlers[type.ordinal()] : null;
+        if (handler == null) {
+            handler = fallback;
+        }
+        if (handler != null) {
+            handler.handle(event);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package net.helpscout.api.webhook;
+
+import java.nio.charset.Charset;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.commons.codec.binary.Base64;
+
+/**
+ * Signs webhook bodies the way Help Scout does: HMAC-SHA1 of the raw body
+ * with the secret key, sent Base64 encoded in the X-HELPSCOUT-SIGNATURE
+ * header. Each thread reuses one Mac, re-initialized only when the key
+ * differs from the one it was last used with.
+ */
+public final class WebhookSigner {
+
+    public static final String SIGNATURE_HEADER = "X-HELPSCOUT-SIGNATURE";
+    public static final String EVENT_HEADER = "X-HELPSCOUT-EVENT";
+
+    /**
+     * Bodies larger than this, in bytes, are rejected unsigned.
+     */
+    public static final int MAX_BODY_SIZE = 4 * 1024 * 1024;
+
+    private static final String ALGORITHM = "HmacSHA1";
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MAX_INITIAL_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<WebhookSigner> SIGNERS = new ThreadLocal<WebhookSigner>() {
+        @Override
+        protected WebhookSigner initialValue() {
+            return new WebhookSigner();
+        }
+    };
+
+    private Mac mac;
+    private String key;
+
+    private WebhookSigner() {
+    }
+
+    /**
+     * The Mac must be used up before the thread signs anything else.
+     *
+     * @param secretKey
+     * @return the Mac of the calling thread, reset and keyed with secretKey
+     * @throws GeneralSecurityException
+     */
+    public static Mac mac(String secretKey) throws GeneralSecurityException {
+        return SIGNERS.get().init(secretKey);
+    }
+
+    /**
+     * @param computed the signature computed over the body
+     * @param signature value of the X-HELPSCOUT-SIGNATURE header
+     * @return whether they match, compared in constant time
+     */
+    public static boolean matches(byte[] computed, String signature) {
+        return computed != null && signature != null
+                && MessageDigest.isEqual(computed, Base64.decodeBase64(signature.trim()));
+    }
+
+    /**
+     * @param contentLength the declared body length, or -1 if unknown; it is
+     * not signed, so it only sizes the buffer up to a bound
+     * @return the initial capacity of a buffer for the body
+     */
+    public static int initialCapacity(int contentLength) {
+        return contentLength > 0 ? Math.min(contentLength, MAX_INITIAL_CAPACITY) : BUFFER_SIZE;
+    }
+
+    private Mac init(String secretKey) throws GeneralSecurityException {
+        if (mac == null) {
+            mac = Mac.getInstance(ALGORITHM);
+        }
+        if (!secretKey.equals(key)) {
+            mac.init(new SecretKeySpec(secretKey.getBytes(UTF_8), ALGORITHM));
+            key = secretKey;
+        } else {
+            mac.reset();
+        }
+        return mac;
+    }
+}
@@ -3,9 +3,13 @@ package net.helpscout.api;
 import com.github.tomakehurst.wiremock.junit.WireMockRule;
 import lombok.AllArgsConstructor;
 import lombok.SneakyThrows;
+import net.helpscout.api.http.HttpClientTransport;
+import net.helpscout.api.http.RateLimiter;
 import net.helpscout.api.json.JsonFormatter;
 import org.hamcrest.Description;
 import org.hamcrest.TypeSafeMatcher;
+import org.junit.After;
+import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.skyscreamer.jsonassert.JSONCompare;
@@ -21,7 +25,7 @@ import static java.net.HttpURLConnection.HTTP_OK;
 public class AbstractApiClientTest {
 
     private static final int PORT = 9091;
-    private static final String BASE_URL = "http://localhost:" + PORT + "/v1/";
+    protected static final String BASE_URL = "http://localhost:" + PORT + "/v1/";
 
     @Rule
     public WireMockRule wireMockRule = new WireMockRule(PORT);
@@ -33,6 +37,23 @@ public class AbstractApiClientTest {
         client.setBaseUrl(BASE_URL);
     }
 
+    /**
+     * WireMock is restarted for every test, so pooled connections must not
+     * outlive the test that opened them, nor throttling learnt from its
+     * responses.
+     */
+    @Before
+    public void setUpTransport() {
+        client.setTransport(new HttpClientTransport());
+        client.setRateLimiter(new RateLimiter());
+    }
+
+    @After
+    @SneakyThrows
+    public void closeTransport() {
+        client.getTransport().close();
+    }
+
     @SneakyThrows
     protected String getResponse(String responseFile) {
         if (responseFile == null) {
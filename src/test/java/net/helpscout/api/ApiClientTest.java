@@ -8,11 +8,18 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static java.net.HttpURLConnection.HTTP_BAD_REQUEST;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 
 public class ApiClientTest extends AbstractApiClientTest {
 
@@ -70,4 +77,29 @@ public class ApiClientTest extends AbstractApiClientTest {
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    public void shouldShareOneRequestBetweenConcurrentIdenticalGets() {
+        givenThat(get(urlEqualTo("/v1/customers/60984612.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withFixedDelay(500)
+                        .withBody(getResponse("customer"))));
+        client.setCoalesceGets(true);
+        try {
+            List<Future<Customer>> customers = new ArrayList<Future<Customer>>();
+            ExecutorService executor = Executors.newFixedThreadPool(10);
+            for (int i = 0; i < 10; i++) {
+                customers.add(executor.submit(() -> client.getCustomer(60984612L)));
+            }
+            for (Future<Customer> customer : customers) {
+                assertSame(customers.get(0).get(), customer.get());
+            }
+            executor.shutdown();
+
+            verify(1, getRequestedFor(urlEqualTo("/v1/customers/60984612.json")));
+        } finally {
+            client.setCoalesceGets(false);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package net.helpscout.api;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.exception.NotFoundException;
+import net.helpscout.api.http.HttpAsyncClientTransport;
+import net.helpscout.api.http.Request;
+import net.helpscout.api.http.Response;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+public class AsyncApiClientTest extends AbstractApiClientTest {
+
+    private AsyncApiClient asyncClient = AsyncApiClient.getInstance();
+
+    @Before
+    public void setUpAsyncClient() {
+        asyncClient.setBaseUrl(BASE_URL);
+        asyncClient.setTransport(new HttpAsyncClientTransport());
+    }
+
+    @After
+    @SneakyThrows
+    public void closeAsyncTransport() {
+        asyncClient.getTransport().close();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnConversation() {
+        stubGET("/v1/conversations/10.json", "conversation_10");
+
+        Conversation conversation = asyncClient.getConversation(10L).get();
+
+        assertThat(conversation.getId(), equalTo(10L));
+        assertThat(conversation.getThreads(), hasSize(1));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnPageOfConversations() {
+        stubGET("/v1/mailboxes/1/conversations.json", "conversations");
+
+        Page<Conversation> conversations = asyncClient.getConversationsForMailbox(1L).get();
+
+        assertThat(conversations.getItems(), hasSize(2));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnPageOfDrillDownConversations() {
+        stubGET("/v1/reports/conversations/drilldown.json", "conversations_drilldown");
+
+        assertThat(asyncClient.getConversationsDrillDown(null).get().getItems(), hasSize(1));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldCompleteManyConcurrentRequests() {
+        stubGET("/v1/customers/60984612.json", "customer");
+
+        List<CompletableFuture<Customer>> customers = new ArrayList<CompletableFuture<Customer>>();
+        for (int i = 0; i < 100; i++) {
+            customers.add(asyncClient.getCustomer(60984612L));
+        }
+        CompletableFuture.allOf(customers.toArray(new CompletableFuture[0])).get();
+
+        for (CompletableFuture<Customer> customer : customers) {
+            assertThat(customer.get().getFirstName(), equalTo("Peter"));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldCompleteExceptionally_WhenResourceIsNotFound() {
+        givenThat(get(urlEqualTo("/v1/customers/1.json"))
+                .willReturn(aResponse().withStatus(HTTP_NOT_FOUND)));
+
+        try {
+            asyncClient.getCustomer(1L).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(NotFoundException.class));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldCompleteExceptionally_WhenIdIsInvalid() {
+        try {
+            asyncClient.getConversation(0L, null).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(ApiException.class));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnNullThreadSource_WhenNotFound() {
+        givenThat(get(urlEqualTo("/v1/conversations/1/thread-source/2.json"))
+                .willReturn(aResponse().withStatus(HTTP_NOT_FOUND)));
+
+        assertNull(asyncClient.getThreadSource(1L, 2L).get());
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotFollowRedirects() {
+        givenThat(get(urlEqualTo("/v1/customers/1.json"))
+                .willReturn(aResponse().withStatus(302).withHeader("Location", BASE_URL + "customers/2.json")));
+
+        Response response = asyncClient.getTransport().execute(new Request("GET", BASE_URL + "customers/1.json")).get();
+        response.close();
+
+        assertThat(response.getStatusCode(), equalTo(302));
+        verify(0, getRequestedFor(urlEqualTo("/v1/customers/2.json")));
+    }
+}
@@ -0,0 +1,123 @@
+package net.helpscout.api;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.exception.NotFoundException;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class BulkApiClientTest extends AbstractApiClientTest {
+
+    private BulkApiClient bulkClient;
+
+    @Before
+    public void setUpBulkClient() {
+        bulkClient = new BulkApiClient(client, 4);
+    }
+
+    @After
+    public void closeBulkClient() {
+        bulkClient.close();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnCustomersInOrderOfIds() {
+        List<Long> ids = new ArrayList<Long>();
+        for (long id = 1; id <= 50; id++) {
+            stubGET("/v1/customers/" + id + ".json", "customer");
+            ids.add(id);
+        }
+
+        List<Customer> customers = bulkClient.getCustomers(ids);
+
+        assertThat(customers, hasSize(50));
+        assertThat(customers.get(49).getFirstName(), equalTo("Peter"));
+    }
+
+    @Test(expected = NotFoundException.class)
+    @SneakyThrows
+    public void shouldThrowFirstFailure() {
+        stubGET("/v1/customers/1.json", "customer");
+        givenThat(get(urlEqualTo("/v1/customers/2.json"))
+                .willReturn(aResponse().withStatus(HTTP_NOT_FOUND)));
+        stubGET("/v1/customers/3.json", "customer");
+
+        bulkClient.getCustomers(Arrays.asList(1L, 2L, 3L));
+    }
+
+    @Test
+    public void shouldWaitForCancelledCallsBeforeThrowing() {
+        final AtomicInteger running = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(3);
+        try {
+            bulkClient.map(Arrays.asList(1, 2, 3, 4), key -> {
+                running.incrementAndGet();
+                try {
+                    started.countDown();
+                    if (key == 4) {
+                        awaitIgnoringInterrupt(started);
+                        throw new ApiException("failed");
+                    }
+                    // like a read blocked on a socket, deaf to the interrupt
+                    long deadline = System.currentTimeMillis() + 300;
+                    while (System.currentTimeMillis() < deadline) {
+                        try {
+                            Thread.sleep(10);
+                        } catch (InterruptedException ignored) {
+                        }
+                    }
+                    return key;
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+            fail("failure not thrown");
+        } catch (ApiException e) {
+            assertThat(e.getMessage(), equalTo("failed"));
+        }
+
+        assertThat(running.get(), equalTo(0));
+    }
+
+    private static void awaitIgnoringInterrupt(CountDownLatch latch) {
+        while (true) {
+            try {
+                latch.await();
+                return;
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnAllPagesOfConversationsForMailboxes() {
+        for (int page = 1; page <= 3; page++) {
+            stubGET("/v1/mailboxes/1/conversations.json?page=" + page, "conversations");
+            stubGET("/v1/mailboxes/2/conversations.json?page=" + page, "conversations");
+        }
+
+        Map<Long, List<Conversation>> conversations = bulkClient.getConversationsForMailboxes(Arrays.asList(1L, 2L));
+
+        assertThat(conversations.keySet(), contains(1L, 2L));
+        assertThat(conversations.get(1L), hasSize(6));
+        assertThat(conversations.get(2L), hasSize(6));
+    }
+}
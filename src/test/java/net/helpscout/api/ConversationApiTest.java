@@ -5,12 +5,15 @@ import lombok.val;
 import net.helpscout.api.cbo.PersonType;
 import net.helpscout.api.model.Conversation;
 import net.helpscout.api.model.customfield.*;
+import net.helpscout.api.model.ref.CustomerRef;
 import net.helpscout.api.model.thread.AbstractThread;
-import org.hamcrest.Matcher;
+import org.hamcrest.Matchers;
 import org.joda.time.LocalDate;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.google.common.collect.ImmutableList.of;
@@ -35,7 +38,7 @@ public class ConversationApiTest extends AbstractApiClientTest {
                 singleLineCustomField(11L, "Purchase Order", "")
         );
 
-        assertThat(conversation.getCustomFields(), (Matcher) equalTo(responses));
+        assertThat(conversation.getCustomFields(), Matchers.<Object>equalTo(responses));
     }
 
     @Test
@@ -160,7 +163,7 @@ public class ConversationApiTest extends AbstractApiClientTest {
 
         assertThat(firstField.getFieldId(), equalTo(10L));
         assertThat(firstField.getName(), equalTo("Project Name"));
-        assertThat(firstField.getValue(), (Matcher) equalTo("Project 1"));
+        assertThat(firstField.getValue(), Matchers.<Object>equalTo("Project 1"));
     }
 
     @Test
@@ -176,6 +179,64 @@ public class ConversationApiTest extends AbstractApiClientTest {
         assertThat(conversation.getOwner().getType(), equalTo(PersonType.Team));
     }
 
+    @Test
+    @SneakyThrows
+    public void shouldDecodePersonRefsOfConversationAndThreads() {
+        stubGET("/v1/conversations/10.json", "conversation_10");
+
+        Conversation conversation = client.getConversation(10L);
+
+        assertThat(conversation.getCreatedBy(), instanceOf(CustomerRef.class));
+        assertThat(getFirstThread(conversation).getCreatedBy(), instanceOf(CustomerRef.class));
+        assertThat(getFirstThread(conversation).getCreatedBy().getEmail(), equalTo("karl@worldoftesters.com"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnPageOfConversationsWithThreads() {
+        stubGET("/v1/mailboxes/1/conversations.json", "conversations");
+
+        Page<Conversation> conversations = client.getConversationsForMailbox(1L);
+
+        assertThat(conversations.getPage(), equalTo(1));
+        assertThat(conversations.getPages(), equalTo(3));
+        assertThat(conversations.getCount(), equalTo(2));
+        assertThat(conversations.getItems(), hasSize(2));
+        assertThat(conversations.getItems().get(1).getCcList(), hasSize(2));
+        assertThat(getFirstThread(conversations.getItems().get(0)).getCreatedBy(), instanceOf(CustomerRef.class));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnPageOfConversations_WhenResponseIsGzipped() {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(body);
+        gzip.write(getResponse("conversations").getBytes("UTF-8"));
+        gzip.close();
+
+        givenThat(get(urlEqualTo("/v1/mailboxes/1/conversations.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withHeader("Content-Encoding", "gzip")
+                        .withBody(body.toByteArray())));
+
+        Page<Conversation> conversations = client.getConversationsForMailbox(1L);
+
+        assertThat(conversations.getItems(), hasSize(2));
+        assertThat(conversations.getItems().get(0).getId(), equalTo(10L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnPageOfDrillDownConversations() {
+        stubGET("/v1/reports/conversations/drilldown.json", "conversations_drilldown");
+
+        val conversations = client.getConversationsDrillDown(null);
+
+        assertThat(conversations.getPage(), equalTo(2));
+        assertThat(conversations.getItems(), hasSize(1));
+        assertThat(conversations.getItems().get(0).getCustomerName(), equalTo("Karl Tester"));
+    }
+
     private SingleLineCustomFieldResponse singleLineCustomField(Long id, String name, String value) {
         val field = new SingleLineCustomFieldResponse();
         field.setName(name);
@@ -1,6 +1,9 @@
 package net.helpscout.api;
 
+import com.github.tomakehurst.wiremock.client.WireMock;
 import lombok.SneakyThrows;
+import net.helpscout.api.http.ConditionalCache;
+import net.helpscout.api.http.Request;
 import net.helpscout.api.model.customfield.CustomField;
 import net.helpscout.api.model.customfield.CustomFieldOption;
 import net.helpscout.api.model.customfield.CustomFieldType;
@@ -12,10 +15,12 @@ import java.util.List;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.google.common.collect.ImmutableList.of;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
 import static java.net.HttpURLConnection.HTTP_OK;
 import static net.helpscout.api.model.customfield.CustomFieldType.*;
 import static org.hamcrest.Matchers.equalTo;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 
 public class MailboxApiTest extends AbstractApiClientTest {
@@ -59,6 +64,73 @@ public class MailboxApiTest extends AbstractApiClientTest {
         assertNull(mailbox.getCustomFields());
     }
 
+    @Test
+    @SneakyThrows
+    public void shouldReturnCachedMailbox_WhenNotModified() {
+        givenThat(get(urlEqualTo("/v1/mailboxes/6.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(getResponse("mailbox_6"))));
+        givenThat(get(urlEqualTo("/v1/mailboxes/6.json"))
+                .withHeader("If-None-Match", WireMock.equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(HTTP_NOT_MODIFIED)));
+        client.setConditionalCache(new ConditionalCache());
+        try {
+            Mailbox mailbox = client.getMailbox(6L);
+
+            assertSame(mailbox, client.getMailbox(6L));
+            verify(1, getRequestedFor(urlEqualTo("/v1/mailboxes/6.json"))
+                    .withHeader("If-None-Match", WireMock.equalTo("\"v1\"")));
+        } finally {
+            client.setConditionalCache(null);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReturnCachedMailbox_WhenEvictedBeforeNotModified() {
+        givenThat(get(urlEqualTo("/v1/mailboxes/6.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(getResponse("mailbox_6"))));
+        givenThat(get(urlEqualTo("/v1/mailboxes/6.json"))
+                .withHeader("If-None-Match", WireMock.equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(HTTP_NOT_MODIFIED)));
+        client.setConditionalCache(new ConditionalCache() {
+            @Override
+            public Entry prepare(Request request) {
+                Entry validated = super.prepare(request);
+                clear();
+                return validated;
+            }
+        });
+        try {
+            Mailbox mailbox = client.getMailbox(6L);
+
+            assertSame(mailbox, client.getMailbox(6L));
+        } finally {
+            client.setConditionalCache(null);
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotCacheAttachmentData() {
+        givenThat(get(urlEqualTo("/v1/attachments/1/data.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody("{\"item\":{\"data\":\"ZGF0YQ==\"}}")));
+        client.setConditionalCache(new ConditionalCache());
+        try {
+            client.getAttachmentBinaryData(1L);
+            client.getAttachmentBinaryData(1L);
+
+            verify(2, getRequestedFor(urlEqualTo("/v1/attachments/1/data.json")).withoutHeader("If-None-Match"));
+        } finally {
+            client.setConditionalCache(null);
+        }
+    }
+
     private CustomField.CustomFieldBuilder fieldBuilder() {
         return CustomField.builder();
     }
@@ -0,0 +1,111 @@
+package net.helpscout.api;
+
+import net.helpscout.api.exception.NotFoundException;
+import net.helpscout.api.model.Conversation;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.fail;
+
+public class PageIteratorTest extends AbstractApiClientTest {
+
+    private static final String CONVERSATIONS_URL = "/v1/mailboxes/1/conversations.json?page=";
+
+    private final PageFetcher<Conversation> fetcher = params -> client.getConversationsForMailbox(1L, params);
+
+    private void stubPages() {
+        for (int page = 1; page <= 3; page++) {
+            stubGET(CONVERSATIONS_URL + page, "conversations");
+        }
+    }
+
+    @Test
+    public void shouldFetchNextPageOnlyWhenCurrentIsConsumed() {
+        stubPages();
+
+        PageIterator<Conversation> conversations = new PageIterator<Conversation>(fetcher);
+        conversations.next();
+        conversations.next();
+
+        verify(1, getRequestedFor(urlEqualTo(CONVERSATIONS_URL + 1)));
+        verify(0, getRequestedFor(urlEqualTo(CONVERSATIONS_URL + 2)));
+
+        conversations.next();
+        verify(1, getRequestedFor(urlEqualTo(CONVERSATIONS_URL + 2)));
+    }
+
+    @Test
+    public void shouldStreamAllPagesWithPrefetch() {
+        stubPages();
+
+        List<Long> ids = new PageIterator<Conversation>(fetcher, null, 2).stream()
+                .map(Conversation::getId)
+                .collect(Collectors.toList());
+
+        assertThat(ids, contains(10L, 11L, 10L, 11L, 10L, 11L));
+        verify(3, getRequestedFor(urlMatching("/v1/mailboxes/1/conversations.json.*")));
+    }
+
+    @Test
+    public void shouldFetchRemainingPagesInParallel() {
+        stubGET(CONVERSATIONS_URL + 1, "conversations");
+        for (int page = 2; page <= 3; page++) {
+            givenThat(get(urlEqualTo(CONVERSATIONS_URL + page))
+                    .willReturn(aResponse().withStatus(HTTP_OK)
+                            .withFixedDelay(500)
+                            .withBody(getResponse("conversations"))));
+        }
+        PagingConfig config = new PagingConfig();
+        config.setPrefetch(2);
+        config.setConcurrency(2);
+        config.setOrdered(false);
+
+        long start = System.currentTimeMillis();
+        List<Long> ids = new PageIterator<Conversation>(fetcher, null, config).stream()
+                .map(Conversation::getId)
+                .collect(Collectors.toList());
+
+        assertThat(ids, containsInAnyOrder(10L, 11L, 10L, 11L, 10L, 11L));
+        assertThat(System.currentTimeMillis() - start, lessThan(900L));
+    }
+
+    @Test
+    public void shouldKeepWithinRequestRate() {
+        stubPages();
+        PagingConfig config = new PagingConfig();
+        config.setPrefetch(2);
+        config.setConcurrency(2);
+        config.setMaxRequestsPerSecond(10);
+
+        long start = System.currentTimeMillis();
+        List<Conversation> conversations = new PageIterator<Conversation>(fetcher, null, config).stream()
+                .collect(Collectors.toList());
+
+        assertThat(conversations, hasSize(6));
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(200L));
+    }
+
+    @Test
+    public void shouldThrowPageFailure() {
+        stubGET(CONVERSATIONS_URL + 1, "conversations");
+        givenThat(get(urlEqualTo(CONVERSATIONS_URL + 2))
+                .willReturn(aResponse().withStatus(HTTP_NOT_FOUND)));
+
+        PageIterator<Conversation> conversations = new PageIterator<Conversation>(fetcher, null, 1);
+        try {
+            while (conversations.hasNext()) {
+                conversations.next();
+            }
+            fail("UncheckedApiException expected");
+        } catch (UncheckedApiException e) {
+            assertThat(e.getCause(), instanceOf(NotFoundException.class));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package net.helpscout.api;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.http.RateLimiter;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RateLimiterTest extends AbstractApiClientTest {
+
+    @Test
+    @SneakyThrows
+    public void shouldSpaceRequestsToConfiguredRate() {
+        stubGET("/v1/customers/1.json", "customer");
+        client.setRateLimiter(new RateLimiter(600, 1));
+
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < 5; i++) {
+            client.getCustomer(1L);
+        }
+
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(400L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldWaitForRetryAfter() {
+        givenThat(get(urlEqualTo("/v1/customers/1.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withHeader("Retry-After", "1")
+                        .withBody(getResponse("customer"))));
+
+        client.getCustomer(1L);
+        long start = System.currentTimeMillis();
+        client.getCustomer(1L);
+
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(900L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldAdoptAdvertisedLimit() {
+        givenThat(get(urlEqualTo("/v1/customers/1.json"))
+                .willReturn(aResponse().withStatus(HTTP_OK)
+                        .withHeader("X-RateLimit-Limit-Minute", "60")
+                        .withHeader("X-RateLimit-Remaining-Minute", "0")
+                        .withBody(getResponse("customer"))));
+        client.setRateLimiter(new RateLimiter(0, 2));
+
+        client.getCustomer(1L);
+        long start = System.currentTimeMillis();
+        client.getCustomer(1L);
+
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(500L));
+    }
+}
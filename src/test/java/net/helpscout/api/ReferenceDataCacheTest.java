@@ -0,0 +1,52 @@
+package net.helpscout.api;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.model.Mailbox;
+import net.helpscout.api.model.MailboxUser;
+import net.helpscout.api.model.Team;
+import org.junit.Test;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class ReferenceDataCacheTest extends AbstractApiClientTest {
+
+    @Test
+    @SneakyThrows
+    public void shouldServeRepeatedLookupsFromMemory() {
+        stubGET("/v1/mailboxes/5.json", "mailbox_5");
+        stubGET("/v1/users/110.json", "user");
+        stubGET("/v1/teams/100.json", "team");
+        ReferenceDataCache cache = new ReferenceDataCache(client);
+
+        Mailbox mailbox = cache.getMailbox(5L);
+        MailboxUser user = cache.getUser(110L);
+        Team team = cache.getTeam(100L);
+
+        assertThat(cache.getMailbox(5L), sameInstance(mailbox));
+        assertThat(cache.getUser(110L), sameInstance(user));
+        assertThat(cache.getTeam(100L), sameInstance(team));
+        verify(1, getRequestedFor(urlEqualTo("/v1/mailboxes/5.json")));
+        verify(1, getRequestedFor(urlEqualTo("/v1/users/110.json")));
+        verify(1, getRequestedFor(urlEqualTo("/v1/teams/100.json")));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRefreshAheadWithoutBlockingReaders() {
+        stubGET("/v1/mailboxes/5.json", "mailbox_5");
+        ReferenceDataCacheConfig config = new ReferenceDataCacheConfig();
+        config.setMailboxTtl(60000);
+        config.setRefreshAheadRatio(0);
+        ReferenceDataCache cache = new ReferenceDataCache(client, config, Runnable::run);
+
+        Mailbox loaded = cache.getMailbox(5L);
+        Mailbox stale = cache.getMailbox(5L);
+
+        assertThat(stale, sameInstance(loaded));
+        verify(2, getRequestedFor(urlEqualTo("/v1/mailboxes/5.json")));
+        assertThat(cache.getMailbox(5L), not(sameInstance(loaded)));
+    }
+}
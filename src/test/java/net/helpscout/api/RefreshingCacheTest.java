@@ -0,0 +1,97 @@
+package net.helpscout.api;
+
+import lombok.SneakyThrows;
+import org.junit.Test;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class RefreshingCacheTest {
+
+    @Test
+    @SneakyThrows
+    public void shouldKeepValueWrittenWhileMissWasLoading() {
+        final AtomicReference<RefreshingCache<Long, String>> cache = new AtomicReference<RefreshingCache<Long, String>>();
+        cache.set(new RefreshingCache<Long, String>("test", key -> {
+            String stale = "loaded " + key;
+            cache.get().put(key, "pushed " + key);
+            return stale;
+        }, 60000, 1, 10, Runnable::run));
+
+        cache.get().get(1L);
+
+        assertThat(cache.get().get(1L), equalTo("pushed 1"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotCacheValueInvalidatedWhileMissWasLoading() {
+        final AtomicReference<RefreshingCache<Long, String>> cache = new AtomicReference<RefreshingCache<Long, String>>();
+        cache.set(new RefreshingCache<Long, String>("test", key -> {
+            cache.get().invalidate(key);
+            return "loaded " + key;
+        }, 60000, 1, 10, Runnable::run));
+
+        cache.get().get(1L);
+
+        assertThat(cache.get().size(), equalTo(0));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldEvictEntryLoadedLongestAgo() {
+        RefreshingCache<Long, String> cache = new RefreshingCache<Long, String>("test", key -> "loaded " + key,
+                60000, 1, 2, Runnable::run);
+        cache.get(1L);
+        cache.get(2L);
+        cache.put(1L, "pushed 1");
+        cache.get(3L);
+
+        assertThat(cache.size(), equalTo(2));
+        assertThat(cache.get(1L), equalTo("pushed 1"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldBackOffAfterFailedRefresh() {
+        final AtomicInteger loads = new AtomicInteger();
+        RefreshingCache<Long, String> cache = new RefreshingCache<Long, String>("test", key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new ApiException("unavailable");
+            }
+            return "loaded " + key;
+        }, 60000, 0, 10, Runnable::run);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.get(1L), equalTo("loaded 1"));
+        }
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRetryRefreshRejectedByExecutor() {
+        final AtomicInteger refreshes = new AtomicInteger();
+        RefreshingCache<Long, String> cache = new RefreshingCache<Long, String>("test", key -> "loaded " + key,
+                400, 0, 10, task -> {
+                    if (refreshes.incrementAndGet() == 1) {
+                        throw new RejectedExecutionException();
+                    }
+                    task.run();
+                });
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(1L);
+        assertThat(refreshes.get(), equalTo(1));
+
+        Thread.sleep(150);
+        cache.get(1L);
+
+        assertThat(refreshes.get(), equalTo(2));
+    }
+}
@@ -0,0 +1,153 @@
+package net.helpscout.api;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.exception.ServerException;
+import net.helpscout.api.exception.ServiceUnavailableException;
+import net.helpscout.api.http.HttpClientTransport;
+import net.helpscout.api.http.Request;
+import net.helpscout.api.http.Response;
+import net.helpscout.api.http.RetryPolicy;
+import net.helpscout.api.http.RetryingTransport;
+import net.helpscout.api.http.Transport;
+import net.helpscout.api.model.Customer;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.stubbing.Scenario.STARTED;
+import static java.net.HttpURLConnection.HTTP_INTERNAL_ERROR;
+import static java.net.HttpURLConnection.HTTP_OK;
+import static java.net.HttpURLConnection.HTTP_UNAVAILABLE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.Assert.fail;
+
+public class RetryingTransportTest extends AbstractApiClientTest {
+
+    private RetryPolicy policy;
+
+    @Before
+    @SneakyThrows
+    public void setUpRetries() {
+        policy = new RetryPolicy();
+        policy.setInitialBackoff(10);
+        policy.setMaxBackoff(100);
+        client.getTransport().close();
+        client.setTransport(new RetryingTransport(new HttpClientTransport(), policy));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRetryUnavailableGet() {
+        givenThat(get(urlEqualTo("/v1/customers/1.json")).inScenario("retry")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(HTTP_UNAVAILABLE))
+                .willSetStateTo("recovered"));
+        givenThat(get(urlEqualTo("/v1/customers/1.json")).inScenario("retry")
+                .whenScenarioStateIs("recovered")
+                .willReturn(aResponse().withStatus(HTTP_OK).withBody(getResponse("customer"))));
+
+        Customer customer = client.getCustomer(1L);
+
+        assertThat(customer.getFirstName(), equalTo("Peter"));
+        verify(2, getRequestedFor(urlEqualTo("/v1/customers/1.json")));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldHoldRetryBackThroughRateLimiterUntilRetryAfter() {
+        policy.setMaxBackoff(2000);
+        givenThat(get(urlEqualTo("/v1/customers/1.json")).inScenario("throttled")
+                .whenScenarioStateIs(STARTED)
+                .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "1"))
+                .willSetStateTo("allowed"));
+        givenThat(get(urlEqualTo("/v1/customers/1.json")).inScenario("throttled")
+                .whenScenarioStateIs("allowed")
+                .willReturn(aResponse().withStatus(HTTP_OK).withBody(getResponse("customer"))));
+
+        long start = System.currentTimeMillis();
+        Customer customer = client.getCustomer(1L);
+
+        assertThat(customer.getFirstName(), equalTo("Peter"));
+        assertThat(System.currentTimeMillis() - start, greaterThanOrEqualTo(900L));
+        verify(2, getRequestedFor(urlEqualTo("/v1/customers/1.json")));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldGiveUpAfterMaxRetries() {
+        givenThat(get(urlEqualTo("/v1/customers/1.json"))
+                .willReturn(aResponse().withStatus(HTTP_INTERNAL_ERROR)));
+
+        try {
+            client.getCustomer(1L);
+            fail("ServerException expected");
+        } catch (ServerException e) {
+            verify(1 + policy.getMaxRetries(), getRequestedFor(urlEqualTo("/v1/customers/1.json")));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotRetryPost() {
+        givenThat(post(urlEqualTo("/v1/customers.json"))
+                .willReturn(aResponse().withStatus(HTTP_UNAVAILABLE)));
+
+        try {
+            client.createCustomer(new Customer());
+            fail("ServiceUnavailableException expected");
+        } catch (ServiceUnavailableException e) {
+            verify(1, postRequestedFor(urlEqualTo("/v1/customers.json")));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldStopRetryingWhenBudgetIsSpent() {
+        policy.setRetryBudget(1);
+        policy.setRetryBudgetRatio(0);
+        client.getTransport().close();
+        client.setTransport(new RetryingTransport(new HttpClientTransport(), policy));
+        givenThat(get(urlEqualTo("/v1/customers/1.json"))
+                .willReturn(aResponse().withStatus(HTTP_INTERNAL_ERROR)));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                client.getCustomer(1L);
+                fail("ServerException expected");
+            } catch (ServerException e) {
+                // expected
+            }
+        }
+
+        verify(3, getRequestedFor(urlEqualTo("/v1/customers/1.json")));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldStopWithoutRetryWhenInterrupted() {
+        final AtomicInteger attempts = new AtomicInteger();
+        RetryingTransport transport = new RetryingTransport(new Transport() {
+            public Response execute(Request request) throws IOException {
+                attempts.incrementAndGet();
+                throw new InterruptedIOException("interrupted");
+            }
+
+            public void close() {
+            }
+        }, policy);
+
+        try {
+            transport.execute(new Request("GET", "http://localhost/v1/customers/1.json"));
+            fail("InterruptedIOException expected");
+        } catch (InterruptedIOException e) {
+            assertThat(Thread.interrupted(), equalTo(true));
+        }
+        assertThat(attempts.get(), equalTo(1));
+    }
+}
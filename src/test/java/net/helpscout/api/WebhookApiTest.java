@@ -4,14 +4,23 @@ import lombok.SneakyThrows;
 import net.helpscout.api.model.Customer;
 import org.junit.Test;
 
+import javax.servlet.ServletInputStream;
 import javax.servlet.http.HttpServletRequest;
-import java.io.BufferedReader;
-import java.io.StringReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.*;
@@ -61,9 +70,21 @@ public class WebhookApiTest extends AbstractApiClientTest {
         assertTrue(webhook.isCustomerEvent());
     }
 
+    @Test
+    public void shouldMatchEventTypesShorterThanPrefix() {
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getHeader("X-HELPSCOUT-EVENT")).thenReturn("x");
+
+        Webhook webhook = new Webhook("SecretKey", httpServletRequest);
+
+        assertFalse(webhook.isConversationEvent());
+        assertFalse(webhook.isCustomerEvent());
+        assertNull(webhook.getType());
+    }
+
     /**
-     * Calculating of signature performed based on JSON data and compared to
-     * data in header 'x-helpscout-signature'.
+     * Calculating of signature performed based on the raw bytes of the JSON data,
+     * newlines included, and compared to data in header 'x-helpscout-signature'.
      * At file 'webhook_customer' located example structure of json send to webhook.
      */
     @Test
@@ -71,10 +92,8 @@ public class WebhookApiTest extends AbstractApiClientTest {
     public void basicTestForCheckIfRequestIsValid() {
 
         HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
-        BufferedReader bufferedReader = new BufferedReader(new StringReader(readJsonDataToString("webhook_customer")));
-
-        when(httpServletRequest.getReader()).thenReturn(bufferedReader);
-        when(httpServletRequest.getHeader("x-helpscout-signature".toUpperCase())).thenReturn("gV91IzHpvzCSLYW+/QGAxfm7KOM=");
+        when(httpServletRequest.getInputStream()).thenReturn(readJsonData("webhook_customer"));
+        when(httpServletRequest.getHeader("x-helpscout-signature".toUpperCase())).thenReturn("1LLXaKaC1fR88fL8y+q5JCYrTZ4=");
 
         Webhook webhook = new Webhook("SecretKey", httpServletRequest);
 
@@ -89,9 +108,7 @@ public class WebhookApiTest extends AbstractApiClientTest {
     public void basicTestForReadingJsonData() {
 
         HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
-        BufferedReader bufferedReader = new BufferedReader(new StringReader(readJsonDataToString("webhook_customer")));
-
-        when(httpServletRequest.getReader()).thenReturn(bufferedReader);
+        when(httpServletRequest.getInputStream()).thenReturn(readJsonData("webhook_customer"));
 
         Webhook webhook = new Webhook("SecretKey", httpServletRequest);
         Customer customer = webhook.getCustomer();
@@ -101,9 +118,131 @@ public class WebhookApiTest extends AbstractApiClientTest {
         assertThat(customer.getEmails().get(0).getValue(), equalTo("some@mail.com"));
     }
 
+    /**
+     * Customers read from a verified webhook are pushed to the listener,
+     * so the near-cache serves them without a request.
+     */
+    @Test
+    @SneakyThrows
+    public void shouldUpdateNearCacheFromValidWebhook() {
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getInputStream()).thenReturn(readJsonData("webhook_customer"));
+        when(httpServletRequest.getHeader("X-HELPSCOUT-EVENT")).thenReturn("customer.created");
+        when(httpServletRequest.getHeader("X-HELPSCOUT-SIGNATURE")).thenReturn("1LLXaKaC1fR88fL8y+q5JCYrTZ4=");
+
+        NearCache nearCache = new NearCache(client);
+        Customer customer = new Webhook("SecretKey", httpServletRequest, nearCache).getCustomer();
+
+        assertSame(customer, nearCache.getCustomer(76688730L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotLetInFlightLoadUndoWebhookUpdate() {
+        stubSlowCustomer();
+        NearCache nearCache = new NearCache(client);
+
+        Future<Customer> load = loadWhileWebhookArrives(nearCache);
+        Customer pushed = new Webhook("SecretKey", webhookRequest("customer.updated"), nearCache).getCustomer();
+
+        assertThat(load.get().getFirstName(), equalTo("Peter"));
+        assertSame(pushed, nearCache.getCustomer(76688730L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotLetInFlightLoadUndoWebhookDelete() {
+        stubSlowCustomer();
+        NearCache nearCache = new NearCache(client);
+
+        Future<Customer> load = loadWhileWebhookArrives(nearCache);
+        new Webhook("SecretKey", webhookRequest("customer.deleted"), nearCache).getCustomer();
+        load.get();
+        nearCache.getCustomer(76688730L);
+
+        verify(2, getRequestedFor(urlEqualTo("/v1/customers/76688730.json")));
+    }
+
+    private void stubSlowCustomer() {
+        givenThat(get(urlEqualTo("/v1/customers/76688730.json"))
+                .willReturn(aResponse().withStatus(200).withFixedDelay(500).withBody(getResponse("customer"))));
+    }
+
+    @SneakyThrows
+    private static Future<Customer> loadWhileWebhookArrives(final NearCache nearCache) {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Customer> load = executor.submit(() -> nearCache.getCustomer(76688730L));
+            Thread.sleep(200);
+            return load;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @SneakyThrows
+    private static HttpServletRequest webhookRequest(String eventType) {
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getInputStream()).thenReturn(readJsonData("webhook_customer"));
+        when(httpServletRequest.getHeader("X-HELPSCOUT-EVENT")).thenReturn(eventType);
+        when(httpServletRequest.getHeader("X-HELPSCOUT-SIGNATURE")).thenReturn("1LLXaKaC1fR88fL8y+q5JCYrTZ4=");
+        return httpServletRequest;
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRejectBodyDeclaredLargerThanLimit() {
+        HttpServletRequest httpServletRequest = webhookRequest("customer.created");
+        when(httpServletRequest.getContentLength()).thenReturn(Integer.MAX_VALUE);
+
+        Webhook webhook = new Webhook("SecretKey", httpServletRequest);
+
+        assertFalse(webhook.isValid());
+        assertNull(webhook.getBody());
+        verify(httpServletRequest, never()).getInputStream();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldStopReadingBodyLargerThanLimit() {
+        HttpServletRequest httpServletRequest = webhookRequest("customer.created");
+        when(httpServletRequest.getContentLength()).thenReturn(-1);
+        when(httpServletRequest.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return ' ';
+            }
+        });
+
+        Webhook webhook = new Webhook("SecretKey", httpServletRequest);
+
+        assertFalse(webhook.isValid());
+        assertNull(webhook.getBody());
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldNotNotifyListenerOfInvalidWebhook() {
+        HttpServletRequest httpServletRequest = mock(HttpServletRequest.class);
+        when(httpServletRequest.getInputStream()).thenReturn(readJsonData("webhook_customer"));
+        when(httpServletRequest.getHeader("X-HELPSCOUT-EVENT")).thenReturn("customer.created");
+        when(httpServletRequest.getHeader("X-HELPSCOUT-SIGNATURE")).thenReturn("forged");
+
+        WebhookListener listener = mock(WebhookListener.class);
+        new Webhook("SecretKey", httpServletRequest, listener).getCustomer();
+
+        verifyZeroInteractions(listener);
+    }
+
     @SneakyThrows
-    private static String readJsonDataToString(String jsonFileName) {
+    private static ServletInputStream readJsonData(String jsonFileName) {
         Path pathToJsonData = Paths.get(ClassLoader.getSystemResource("responses/" + jsonFileName + ".json").toURI());
-        return new String(Files.readAllBytes(pathToJsonData), "UTF-8");
+        final InputStream in = new ByteArrayInputStream(Files.readAllBytes(pathToJsonData));
+        return new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return in.read();
+            }
+        };
     }
 }
@@ -0,0 +1,45 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class DateAdapterTest {
+
+    private final DateAdapter adapter = new DateAdapter();
+
+    @Test
+    public void shouldMatchSimpleDateFormat() throws Exception {
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+        dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            // 1900 to 2100
+            long millis = (long) ((random.nextDouble() * 200 - 70) * 365.25 * 86400) * 1000L;
+            String expected = dateFormat.format(new Date(millis));
+
+            assertThat(adapter.serialize(new Date(millis), Date.class, null).getAsString(), equalTo(expected));
+            assertThat(adapter.deserialize(new JsonPrimitive(expected), Date.class, null), equalTo(dateFormat.parse(expected)));
+        }
+    }
+
+    @Test
+    public void shouldParseLeapDay() {
+        assertThat(adapter.deserialize(new JsonPrimitive("2016-02-29T23:59:59Z"), Date.class, null).getTime(),
+                equalTo(1456790399000L));
+    }
+
+    @Test(expected = JsonParseException.class)
+    public void shouldRejectUnparseableDate() {
+        adapter.deserialize(new JsonPrimitive("2016-02-xxT23:59:59Z"), Date.class, null);
+    }
+}
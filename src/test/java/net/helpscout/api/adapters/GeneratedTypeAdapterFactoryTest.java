@@ -0,0 +1,100 @@
+package net.helpscout.api.adapters;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import lombok.SneakyThrows;
+import net.helpscout.api.Parser;
+import net.helpscout.api.cbo.*;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Conversation_TypeAdapter;
+import net.helpscout.api.model.Customer;
+import net.helpscout.api.model.Mailbox;
+import net.helpscout.api.model.MailboxUser;
+import net.helpscout.api.model.Team;
+import net.helpscout.api.model.customfield.CustomFieldResponse;
+import net.helpscout.api.model.report.common.DateAndCount;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertThat;
+
+public class GeneratedTypeAdapterFactoryTest {
+
+    private final Gson reflective = reflectiveGson();
+    private final Gson plain = new Gson();
+
+    @Test
+    public void shouldUseGeneratedAdapters() {
+        Gson gson = new GsonBuilder().registerTypeAdapterFactory(new GeneratedTypeAdapterFactory()).create();
+
+        assertThat(gson.getAdapter(Conversation.class), instanceOf(Conversation_TypeAdapter.class));
+    }
+
+    @Test
+    public void shouldDecodeFixturesLikeReflectiveBinding() {
+        assertSameItem("conversation_10", Conversation.class);
+        assertSameItem("conversation_11", Conversation.class);
+        assertSameItem("conversation_13", Conversation.class);
+        assertSameItems(fixture("conversations").get("items"), Conversation.class);
+        assertSameItems(fixture("conversations_drilldown").getAsJsonObject("conversations").get("results"),
+                net.helpscout.api.model.report.conversations.Conversation.class);
+        assertSameItem("customer", Customer.class);
+        assertSame(fixture("webhook_customer"), Customer.class);
+        assertSameItem("mailbox_5", Mailbox.class);
+        assertSameItem("mailbox_6", Mailbox.class);
+        assertSameItem("team", Team.class);
+        assertSameItems(fixture("teams").get("items"), Team.class);
+        assertSameItem("user", MailboxUser.class);
+        assertSameItems(fixture("users").get("items"), MailboxUser.class);
+    }
+
+    private void assertSameItem(String name, Class<?> type) {
+        assertSame(fixture(name).get("item"), type);
+    }
+
+    private void assertSameItems(JsonElement items, Class<?> type) {
+        for (JsonElement item : items.getAsJsonArray()) {
+            assertSame(item, type);
+        }
+    }
+
+    private void assertSame(JsonElement json, Class<?> type) {
+        Object generated = Parser.getInstance().getObject(json, type);
+        Object expected = reflective.fromJson(json, type);
+
+        assertThat(plain.toJson(generated), equalTo(plain.toJson(expected)));
+    }
+
+    @SneakyThrows
+    private static JsonObject fixture(String name) {
+        byte[] json = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("responses/" + name + ".json").toURI()));
+        return new JsonParser().parse(new String(json, Charset.forName("UTF-8"))).getAsJsonObject();
+    }
+
+    private static Gson reflectiveGson() {
+        GsonBuilder builder = new GsonBuilder();
+        builder.registerTypeAdapter(ConversationType.class, new ConversationTypeAdapter());
+        builder.registerTypeAdapter(ThreadType.class, new ThreadTypeAdapter());
+        builder.registerTypeAdapter(ThreadState.class, new ThreadStateAdapter());
+        builder.registerTypeAdapter(Status.class, new StatusAdapter());
+        builder.registerTypeAdapter(ActionType.class, new ActionTypeAdapter());
+        builder.registerTypeAdapter(Date.class, new DateAdapter());
+        builder.registerTypeAdapter(WorkflowStatus.class, new WorkflowStatusAdapter());
+        builder.registerTypeAdapter(WorkflowType.class, new WorkflowTypeAdapter());
+        builder.registerTypeAdapter(PersonType.class, new PersonTypeAdapter());
+        builder.registerTypeAdapterFactory(new PersonRefAdapter());
+        builder.registerTypeAdapterFactory(new ThreadsAdapater());
+        builder.registerTypeAdapter(DateAndCount.class, new DateAndCountDeserializer());
+        builder.registerTypeAdapter(CustomFieldResponse.class, new CustomFieldResponseAdapter());
+        return builder.create();
+    }
+}
@@ -0,0 +1,109 @@
+package net.helpscout.api.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.helpscout.api.adapters.DateAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Date parsing throughput of {@link DateAdapter} against the adapter it
+ * replaced, which locked a shared {@link SimpleDateFormat}, at 1, 8 and 32
+ * threads sharing one adapter, as threads sharing the {@code Parser} do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateAdapterBenchmark {
+
+    private static final JsonElement[] DATES = {
+            new JsonPrimitive("2015-01-02T19:51:28Z"),
+            new JsonPrimitive("2015-01-02T20:03:11Z"),
+            new JsonPrimitive("2014-12-30T08:15:00Z"),
+            new JsonPrimitive("2016-03-22T00:33:59Z")
+    };
+
+    private final DateAdapter adapter = new DateAdapter();
+    private final LockingDateAdapter lockingAdapter = new LockingDateAdapter();
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+
+        JsonElement next() {
+            return DATES[next++ & (DATES.length - 1)];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Date current_1(Cursor cursor) {
+        return adapter.deserialize(cursor.next(), Date.class, null);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date current_8(Cursor cursor) {
+        return adapter.deserialize(cursor.next(), Date.class, null);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Date current_32(Cursor cursor) {
+        return adapter.deserialize(cursor.next(), Date.class, null);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Date locking_1(Cursor cursor) {
+        return lockingAdapter.deserialize(cursor.next());
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Date locking_8(Cursor cursor) {
+        return lockingAdapter.deserialize(cursor.next());
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Date locking_32(Cursor cursor) {
+        return lockingAdapter.deserialize(cursor.next());
+    }
+
+    /**
+     * The previous DateAdapter.deserialize.
+     */
+    static class LockingDateAdapter {
+        private final DateFormat dateFormat;
+
+        LockingDateAdapter() {
+            dateFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'", Locale.US);
+            dateFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+        }
+
+        synchronized Date deserialize(JsonElement json) {
+            synchronized (dateFormat) {
+                Calendar cal = Calendar.getInstance();
+                cal.setTimeZone(TimeZone.getTimeZone("UTC"));
+                try {
+                    cal.setTime(dateFormat.parse(json.getAsString()));
+                } catch (ParseException e) {
+                    e.printStackTrace();
+                }
+                return cal.getTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package net.helpscout.api.benchmark;
+
+import net.helpscout.api.json.GsonCodec;
+import net.helpscout.api.json.JsonCodec;
+import net.helpscout.api.json.StreamingCodec;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding throughput of the {@link JsonCodec} engines, from the response
+ * text to the model objects, over a conversation, a page of conversations
+ * and a customer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    @Param({"gson", "streaming"})
+    public String codec;
+
+    private JsonCodec engine;
+    private String conversation;
+    private String conversations;
+    private String customer;
+
+    @Setup
+    public void setUp() throws Exception {
+        engine = codec.equals("gson") ? new GsonCodec() : new StreamingCodec();
+        conversation = fixture("conversation_13");
+        conversations = fixture("conversations");
+        customer = fixture("customer");
+    }
+
+    @Benchmark
+    public Conversation conversation() throws IOException {
+        return engine.readItem(new StringReader(conversation), Conversation.class);
+    }
+
+    @Benchmark
+    public Object conversationPage() throws IOException {
+        return engine.readPage(new StringReader(conversations), Conversation.class, null);
+    }
+
+    @Benchmark
+    public Customer customer() throws IOException {
+        return engine.readItem(new StringReader(customer), Customer.class);
+    }
+
+    private String fixture(String name) throws IOException {
+        return IOUtils.toString(getClass().getResourceAsStream("/responses/" + name + ".json"), "UTF-8");
+    }
+}
@@ -0,0 +1,84 @@
+package net.helpscout.api.benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import net.helpscout.api.Parser;
+import net.helpscout.api.adapters.*;
+import net.helpscout.api.cbo.*;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.customfield.CustomFieldResponse;
+import net.helpscout.api.model.report.common.DateAndCount;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversation parsing throughput over the conversation_* fixtures.
+ *
+ * {@code sharedGson} goes through {@link Parser}, {@code freshGson} builds the
+ * same configuration for every call the way Parser used to, and
+ * {@code reflectiveGson} shares one without the generated model adapters.
+ * Run with the
+ * "benchmark" profile, which enables the gc profiler for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"conversation_10", "conversation_11", "conversation_13"})
+    public String fixture;
+
+    private JsonElement item;
+    private Gson reflective;
+
+    @Setup
+    public void setUp() throws Exception {
+        String json = IOUtils.toString(getClass().getResourceAsStream("/responses/" + fixture + ".json"), "UTF-8");
+        item = new JsonParser().parse(json).getAsJsonObject().get("item");
+        reflective = newBuilder(false).create();
+    }
+
+    @Benchmark
+    public Conversation sharedGson() {
+        return Parser.getInstance().getObject(item, Conversation.class);
+    }
+
+    @Benchmark
+    public Conversation freshGson() {
+        return newBuilder(true).create().fromJson(item, Conversation.class);
+    }
+
+    @Benchmark
+    public Conversation reflectiveGson() {
+        return reflective.fromJson(item, Conversation.class);
+    }
+
+    private static GsonBuilder newBuilder(boolean generated) {
+        GsonBuilder builder = new GsonBuilder();
+        if (generated) {
+            builder.registerTypeAdapterFactory(new GeneratedTypeAdapterFactory());
+        }
+        builder.registerTypeAdapter(ConversationType.class, new ConversationTypeAdapter());
+        builder.registerTypeAdapter(ThreadType.class, new ThreadTypeAdapter());
+        builder.registerTypeAdapter(ThreadState.class, new ThreadStateAdapter());
+        builder.registerTypeAdapter(Status.class, new StatusAdapter());
+        builder.registerTypeAdapter(ActionType.class, new ActionTypeAdapter());
+        builder.registerTypeAdapter(Date.class, new DateAdapter());
+        builder.registerTypeAdapter(WorkflowStatus.class, new WorkflowStatusAdapter());
+        builder.registerTypeAdapter(WorkflowType.class, new WorkflowTypeAdapter());
+        builder.registerTypeAdapter(PersonType.class, new PersonTypeAdapter());
+        builder.registerTypeAdapterFactory(new PersonRefAdapter());
+        builder.registerTypeAdapterFactory(new ThreadsAdapater());
+        builder.registerTypeAdapter(DateAndCount.class, new DateAndCountDeserializer());
+        builder.registerTypeAdapter(CustomFieldResponse.class, new CustomFieldResponseAdapter());
+        return builder;
+    }
+}
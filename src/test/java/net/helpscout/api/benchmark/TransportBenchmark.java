@@ -0,0 +1,65 @@
+package net.helpscout.api.benchmark;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import net.helpscout.api.ApiClient;
+import net.helpscout.api.Page;
+import net.helpscout.api.http.HttpClientTransport;
+import net.helpscout.api.http.TransportConfig;
+import net.helpscout.api.model.MailboxUser;
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+
+/**
+ * Latency of a small page request against a local WireMock server, with
+ * pooled keep-alive connections and with a new connection per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransportBenchmark {
+
+    private static final int PORT = 9092;
+
+    @Param({"true", "false"})
+    public boolean keepAlive;
+
+    private WireMockServer server;
+    private HttpClientTransport transport;
+    private ApiClient client;
+
+    @Setup
+    public void setUp() throws Exception {
+        server = new WireMockServer(wireMockConfig().port(PORT));
+        server.start();
+        server.stubFor(get(urlEqualTo("/v1/users.json"))
+                .willReturn(aResponse().withStatus(200)
+                        .withBody(IOUtils.toString(getClass().getResourceAsStream("/responses/users.json"), "UTF-8"))));
+
+        TransportConfig config = new TransportConfig();
+        config.setKeepAlive(keepAlive);
+        transport = new HttpClientTransport(config);
+
+        client = ApiClient.getInstance();
+        client.setBaseUrl("http://localhost:" + PORT + "/v1/");
+        client.setTransport(transport);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        transport.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public Page<MailboxUser> getUsers() throws Exception {
+        return client.getUsers();
+    }
+}
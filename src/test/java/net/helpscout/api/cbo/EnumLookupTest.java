@@ -0,0 +1,39 @@
+package net.helpscout.api.cbo;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+public class EnumLookupTest {
+
+    @Test
+    public void shouldFindEveryConstantByLabelIgnoringCase() {
+        for (ThreadType item : ThreadType.values()) {
+            assertThat(ThreadType.findByLabel(item.getLabel()), equalTo(item));
+            assertThat(ThreadType.findByLabel(item.getLabel().toUpperCase()), equalTo(item));
+            assertThat(ThreadType.findByValue(item.getValue()), equalTo(item));
+        }
+        for (ActionType item : ActionType.values()) {
+            assertThat(ActionType.findByLabel(item.getLabel()), equalTo(item));
+        }
+        for (Status item : Status.values()) {
+            assertThat(Status.findByKey(item.getKey()), equalTo(item));
+            assertThat(Status.findByValue(item.getValue()), equalTo(item));
+        }
+        assertThat(ActionType.findByLabel("movedfrommailbox"), equalTo(ActionType.MovedFromMailbox));
+        assertThat(ThreadState.findByKey("UnderReview"), equalTo(ThreadState.UnderReview));
+    }
+
+    @Test
+    public void shouldFallBackForUnknownLabelsAndValues() {
+        assertThat(ThreadType.findByLabel("unknown"), nullValue());
+        assertThat(ThreadType.findByLabel(null), nullValue());
+        assertThat(Status.findByValue(42), nullValue());
+        assertThat(PersonType.findByLabel("robot"), equalTo(PersonType.User));
+        assertThat(PersonType.findByValue(3), equalTo(PersonType.User));
+        assertThat(ConversationType.findByLabel(""), equalTo(ConversationType.Email));
+        assertThat(WorkflowStatus.findByValue(-1), nullValue());
+    }
+}
@@ -0,0 +1,235 @@
+package net.helpscout.api.json;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import lombok.SneakyThrows;
+import net.helpscout.api.Page;
+import net.helpscout.api.cbo.ThreadType;
+import net.helpscout.api.model.Conversation;
+import net.helpscout.api.model.Customer;
+import net.helpscout.api.model.Mailbox;
+import net.helpscout.api.model.MailboxUser;
+import net.helpscout.api.model.Team;
+import net.helpscout.api.model.customfield.DateCustomFieldResponse;
+import net.helpscout.api.model.customfield.DropDownCustomFieldResponse;
+import net.helpscout.api.model.customfield.MultiLineCustomFieldResponse;
+import net.helpscout.api.model.customfield.NumberCustomFieldResponse;
+import net.helpscout.api.model.customfield.SingleLineCustomFieldResponse;
+import net.helpscout.api.model.ref.CustomerRef;
+import net.helpscout.api.model.ref.TeamRef;
+import net.helpscout.api.model.ref.UserRef;
+import net.helpscout.api.model.thread.AbstractThread;
+import net.helpscout.api.model.thread.BaseLineItem;
+import net.helpscout.api.model.thread.LineItem;
+import net.helpscout.api.model.thread.Note;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Every {@link JsonCodec} must decode the responses in
+ * {@code src/test/resources/responses} to the same objects as Gson binding
+ * the whole response tree, the way responses were decoded before codecs.
+ */
+@RunWith(Parameterized.class)
+public class JsonCodecConformanceTest {
+
+    private static final Gson reference = GsonCodec.newBuilder().create();
+    private static final Gson plain = new Gson();
+
+    private final JsonCodec codec;
+
+    public JsonCodecConformanceTest(String name, JsonCodec codec) {
+        this.codec = codec;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> codecs() {
+        return Arrays.asList(new Object[][]{
+                {"gson", new GsonCodec()},
+                {"streaming", new StreamingCodec()}
+        });
+    }
+
+    @Test
+    public void shouldDecodeItemsLikeTreeBinding() {
+        assertSameItem("conversation_10", Conversation.class);
+        assertSameItem("conversation_11", Conversation.class);
+        assertSameItem("conversation_13", Conversation.class);
+        assertSameItem("customer", Customer.class);
+        assertSameItem("mailbox_5", Mailbox.class);
+        assertSameItem("mailbox_6", Mailbox.class);
+        assertSameItem("team", Team.class);
+        assertSameItem("user", MailboxUser.class);
+    }
+
+    @Test
+    public void shouldDecodePagesLikeTreeBinding() {
+        assertSamePage("conversations", Conversation.class, null);
+        assertSamePage("conversations_drilldown", net.helpscout.api.model.report.conversations.Conversation.class,
+                "conversations");
+        assertSamePage("teams", Team.class, null);
+        assertSamePage("users", MailboxUser.class, null);
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodeObjectsLikeTreeBinding() {
+        String json = fixture("webhook_customer");
+        Customer customer = codec.read(new StringReader(json), Customer.class);
+
+        assertThat(plain.toJson(customer), equalTo(plain.toJson(reference.fromJson(json, Customer.class))));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodePolymorphicThreadsAndRefs() {
+        Conversation conversation = codec.readItem(new StringReader(fixture("conversation_10")), Conversation.class);
+
+        assertThat(conversation.getCreatedBy(), instanceOf(CustomerRef.class));
+        AbstractThread thread = (AbstractThread) conversation.getThreads().get(0);
+        assertThat(thread, instanceOf(net.helpscout.api.model.thread.Customer.class));
+        assertThat(thread.getType(), equalTo(ThreadType.Customer));
+        assertThat(thread.getCreatedBy(), instanceOf(CustomerRef.class));
+        assertThat(thread.getCreatedBy().getEmail(), equalTo("karl@worldoftesters.com"));
+        assertThat(thread.getCreatedAt().getTime(), equalTo(1451856951000L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodeThreadsWhateverThePositionOfTheirType() {
+        String json = "[{\"createdBy\":{\"id\":1,\"email\":\"a@b.c\"},\"id\":2,\"type\":\"customer\",\"body\":\"b\"},"
+                + "{\"id\":3,\"createdBy\":{\"id\":4,\"type\":\"customer\"},\"type\":\"note\",\"state\":\"draft\"},"
+                + "{\"type\":\"lineitem\",\"createdBy\":{\"id\":5},\"status\":\"closed\"},"
+                + "{\"id\":6,\"type\":\"unknown\",\"body\":\"b\"},"
+                + "{\"id\":7,\"body\":\"b\"},"
+                + "null]";
+        List<LineItem> threads = codec.readList(new StringReader(json), LineItem.class);
+        List<LineItem> expected = new ArrayList<LineItem>(Arrays.asList(reference.fromJson(json, LineItem[].class)));
+        expected.removeAll(Collections.singleton(null));
+
+        assertThat(plain.toJson(threads), equalTo(plain.toJson(expected)));
+        assertThat(threads.size(), equalTo(3));
+        assertThat(threads.get(0).getCreatedBy(), instanceOf(CustomerRef.class));
+        assertThat(((AbstractThread) threads.get(0)).getId(), equalTo(2L));
+        assertThat(threads.get(1), instanceOf(Note.class));
+        assertThat(threads.get(1).getCreatedBy(), instanceOf(UserRef.class));
+        assertThat(threads.get(2).getClass(), equalTo((Object) BaseLineItem.class));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodePersonRefsByTheirOwnType() {
+        String json = "{\"id\":1,\"createdBy\":{\"id\":2,\"email\":\"a@b.c\",\"type\":\"team\"},"
+                + "\"owner\":{\"id\":3},\"customer\":{\"id\":4,\"type\":\"customer\"}}";
+        Conversation conversation = codec.read(new StringReader(json), Conversation.class);
+
+        assertThat(plain.toJson(conversation), equalTo(plain.toJson(reference.fromJson(json, Conversation.class))));
+        assertThat(conversation.getCreatedBy(), instanceOf(TeamRef.class));
+        assertThat(conversation.getCreatedBy().getEmail(), equalTo("a@b.c"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodeCustomFieldsAndDates() {
+        Conversation conversation = codec.readItem(new StringReader(fixture("conversation_13")), Conversation.class);
+
+        assertThat(conversation.getCustomFields().get(0), instanceOf(SingleLineCustomFieldResponse.class));
+        assertThat(conversation.getCustomFields().get(1), instanceOf(MultiLineCustomFieldResponse.class));
+        assertThat(conversation.getCustomFields().get(2), instanceOf(NumberCustomFieldResponse.class));
+        assertThat(conversation.getCustomFields().get(3), instanceOf(DateCustomFieldResponse.class));
+        assertThat(conversation.getCustomFields().get(4), instanceOf(DropDownCustomFieldResponse.class));
+        assertThat(conversation.getCustomFields().get(3).getStringValue(), equalTo("2015-01-02"));
+        assertThat(conversation.getCustomFields().get(2).getFieldId(), equalTo(12L));
+        assertThat(conversation.getCustomFields().get(2).getName(), equalTo("Version"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodeMissingValuesToNull() {
+        assertThat(codec.readItem(new StringReader("{\"other\":{\"id\":1}}"), Conversation.class), nullValue());
+        assertThat(codec.read(new StringReader("null"), Conversation.class), nullValue());
+        assertThat(codec.readPage(new StringReader("{\"other\":{}}"), Conversation.class, "conversations"),
+                nullValue());
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldSkipPropertiesFollowingItemOrPage() {
+        String item = "{\"item\":{\"id\":1},\"other\":{\"id\":2},\"more\":[3]}";
+        String page = "{\"conversations\":{\"page\":1,\"items\":[{\"id\":1}]},\"other\":{\"page\":2},\"more\":3}";
+
+        assertThat(codec.readItem(new StringReader(item), Conversation.class).getId(), equalTo(1L));
+        assertThat(codec.readPage(new StringReader(page), Conversation.class, "conversations").getPage(), equalTo(1));
+    }
+
+    @Test
+    public void shouldRejectContentAfterTheDocument() {
+        assertRejected(() -> codec.read(new StringReader("{\"id\":1} {\"id\":2}"), Customer.class));
+        assertRejected(() -> codec.readItem(new StringReader("{\"item\":{\"id\":1}} x"), Customer.class));
+        assertRejected(() -> codec.readList(new StringReader("[{\"id\":1}] []"), Customer.class));
+        assertRejected(() -> codec.readPage(new StringReader("{\"page\":1} 1"), Customer.class, null));
+    }
+
+    private static void assertRejected(Callable<?> read) {
+        try {
+            read.call();
+            fail("trailing content accepted");
+        } catch (Exception e) {
+            assertThat(e, instanceOf(JsonSyntaxException.class));
+        }
+    }
+
+    @SneakyThrows
+    private void assertSameItem(String name, Class<?> type) {
+        String json = fixture(name);
+        Object decoded = codec.readItem(new StringReader(json), type);
+        Object expected = reference.fromJson(new JsonParser().parse(json).getAsJsonObject().get("item"), type);
+
+        assertThat(name, plain.toJson(decoded), equalTo(plain.toJson(expected)));
+    }
+
+    @SneakyThrows
+    private <T> void assertSamePage(String name, Class<T> type, String wrapperObjectName) {
+        String json = fixture(name);
+        Page<T> page = codec.readPage(new StringReader(json), type, wrapperObjectName);
+
+        JsonObject tree = new JsonParser().parse(json).getAsJsonObject();
+        if (wrapperObjectName != null) {
+            tree = tree.getAsJsonObject(wrapperObjectName);
+        }
+        JsonElement items = tree.has("items") ? tree.get("items") : tree.get("results");
+        assertThat(name, page.getPage(), equalTo(tree.get("page").getAsInt()));
+        assertThat(name, page.getItems().size(), equalTo(items.getAsJsonArray().size()));
+        for (int i = 0; i < page.getItems().size(); i++) {
+            Object expected = reference.fromJson(items.getAsJsonArray().get(i), type);
+            assertThat(name, plain.toJson(page.getItems().get(i)), equalTo(plain.toJson(expected)));
+        }
+    }
+
+    @SneakyThrows
+    private static String fixture(String name) {
+        byte[] json = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("responses/" + name + ".json").toURI()));
+        return new String(json, Charset.forName("UTF-8"));
+    }
+}
@@ -0,0 +1,78 @@
+package net.helpscout.api.webhook;
+
+import lombok.SneakyThrows;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+public class WebhookDeduplicatorTest {
+
+    @Test
+    public void shouldDropRepeatedDeliveryOnly() {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator();
+
+        assertThat(deduplicator.isDuplicate("sig-1", "convo.updated"), equalTo(false));
+        assertThat(deduplicator.isDuplicate("sig-1", "convo.updated"), equalTo(true));
+        assertThat(deduplicator.isDuplicate("sig-1", "convo.created"), equalTo(false));
+        assertThat(deduplicator.isDuplicate("sig-2", "convo.updated"), equalTo(false));
+        assertThat(deduplicator.isDuplicate(null, "convo.updated"), equalTo(false));
+        assertThat(deduplicator.isDuplicate(null, "convo.updated"), equalTo(false));
+    }
+
+    @Test
+    public void shouldRememberOneCapacityOfDeliveriesAcrossRotation() {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator(16, 60000);
+        for (int i = 0; i < 16; i++) {
+            deduplicator.isDuplicate("sig-" + i, "convo.updated");
+        }
+        // the first table is now the previous one, still checked
+        assertThat(deduplicator.isDuplicate("sig-0", "convo.updated"), equalTo(true));
+        for (int i = 16; i < 32; i++) {
+            deduplicator.isDuplicate("sig-" + i, "convo.updated");
+        }
+        assertThat(deduplicator.isDuplicate("sig-0", "convo.updated"), equalTo(false));
+        assertThat(deduplicator.isDuplicate("sig-31", "convo.updated"), equalTo(true));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldForgetDeliveriesAfterTwoWindows() {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator(16, 50);
+        deduplicator.isDuplicate("sig-1", "convo.updated");
+        Thread.sleep(60);
+        deduplicator.isDuplicate("sig-2", "convo.updated");
+        Thread.sleep(60);
+
+        assertThat(deduplicator.isDuplicate("sig-1", "convo.updated"), equalTo(false));
+    }
+
+    @Test
+    public void shouldForgetReleasedDeliveryOnly() {
+        WebhookDeduplicator deduplicator = new WebhookDeduplicator(16, 60000);
+        for (int i = 0; i < 12; i++) {
+            deduplicator.isDuplicate("sig-" + i, "convo.updated");
+        }
+        deduplicator.release("sig-3", "convo.updated");
+        deduplicator.release("sig-99", "convo.updated");
+
+        for (int i = 0; i < 12; i++) {
+            assertThat("sig-" + i, deduplicator.isDuplicate("sig-" + i, "convo.updated"), equalTo(i != 3));
+        }
+    }
+
+    @Test
+    public void shouldDropDuplicatesInIngestor() {
+        WebhookIngestor ingestor = new WebhookIngestor("SecretKey");
+        ingestor.setDeduplicator(new WebhookDeduplicator());
+        try {
+            assertThat(ingestor.accept(WebhookIngestorTest.request("convo.updated", "1LLXaKaC1fR88fL8y+q5JCYrTZ4=")),
+                    equalTo(WebhookIngestor.Result.ACCEPTED));
+            assertThat(ingestor.accept(WebhookIngestorTest.request("convo.updated", "1LLXaKaC1fR88fL8y+q5JCYrTZ4=")),
+                    equalTo(WebhookIngestor.Result.DUPLICATE));
+            assertThat(ingestor.getDuplicateCount(), equalTo(1L));
+        } finally {
+            ingestor.close();
+        }
+    }
+}
@@ -0,0 +1,260 @@
+package net.helpscout.api.webhook;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.model.Customer;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class WebhookIngestorTest {
+
+    private static final String SIGNATURE = "1LLXaKaC1fR88fL8y+q5JCYrTZ4=";
+
+    private WebhookIngestor ingestor;
+
+    @After
+    public void closeIngestor() {
+        ingestor.close();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDispatchVerifiedEventToHandlerOfItsType() {
+        ingestor = new WebhookIngestor("SecretKey");
+        final BlockingQueue<Customer> customers = new LinkedBlockingQueue<Customer>();
+        ingestor.register("customer.created", event -> customers.add(event.getCustomer()));
+
+        assertThat(ingestor.accept(request("customer.created", SIGNATURE)), equalTo(WebhookIngestor.Result.ACCEPTED));
+
+        Customer customer = customers.poll(5, TimeUnit.SECONDS);
+        assertThat(customer.getFirstName(), equalTo("First_Name"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRefuseInvalidSignature() {
+        ingestor = new WebhookIngestor("SecretKey");
+
+        assertThat(ingestor.accept(request("customer.created", "forged")), equalTo(WebhookIngestor.Result.INVALID));
+        assertThat(ingestor.getInvalidCount(), equalTo(1L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRejectWhenQueueIsFull() {
+        WebhookIngestorConfig config = new WebhookIngestorConfig();
+        config.setQueueCapacity(1);
+        config.setWorkers(1);
+        ingestor = new WebhookIngestor("SecretKey", config);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ingestor.register("customer.created", event -> {
+            started.countDown();
+            release.await();
+        });
+
+        assertThat(ingestor.accept(request("customer.created", SIGNATURE)), equalTo(WebhookIngestor.Result.ACCEPTED));
+        started.await(5, TimeUnit.SECONDS);
+        assertThat(ingestor.accept(request("customer.created", SIGNATURE)), equalTo(WebhookIngestor.Result.ACCEPTED));
+        assertThat(ingestor.accept(request("customer.created", SIGNATURE)), equalTo(WebhookIngestor.Result.REJECTED));
+
+        assertThat(ingestor.getQueueDepth(), equalTo(1));
+        assertThat(ingestor.getMaxQueueDepth(), equalTo(1));
+        assertThat(ingestor.getRejectedCount(), equalTo(1L));
+        release.countDown();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldAcceptRetryOfRejectedDeliveryWhenDeduplicating() {
+        WebhookIngestorConfig config = new WebhookIngestorConfig();
+        config.setQueueCapacity(1);
+        config.setWorkers(1);
+        ingestor = new WebhookIngestor("SecretKey", config);
+        ingestor.setDeduplicator(new WebhookDeduplicator());
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ingestor.register("customer.created", event -> {
+            started.countDown();
+            release.await();
+        });
+
+        assertThat(ingestor.accept(request("customer.created", SIGNATURE)), equalTo(WebhookIngestor.Result.ACCEPTED));
+        started.await(5, TimeUnit.SECONDS);
+        assertThat(ingestor.accept(request("customer.updated", SIGNATURE)), equalTo(WebhookIngestor.Result.ACCEPTED));
+        assertThat(ingestor.accept(request("customer.deleted", SIGNATURE)), equalTo(WebhookIngestor.Result.REJECTED));
+        release.countDown();
+        for (int i = 0; i < 50 && ingestor.getQueueDepth() > 0; i++) {
+            Thread.sleep(10);
+        }
+
+        assertThat(ingestor.accept(request("customer.deleted", SIGNATURE)), equalTo(WebhookIngestor.Result.ACCEPTED));
+        assertThat(ingestor.accept(request("customer.deleted", SIGNATURE)), equalTo(WebhookIngestor.Result.DUPLICATE));
+        assertThat(ingestor.getDuplicateCount(), equalTo(1L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldAcceptOnlyOneOfConcurrentDeliveries() {
+        ingestor = new WebhookIngestor("SecretKey");
+        ExecutorService senders = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 200; round++) {
+                ingestor.setDeduplicator(new WebhookDeduplicator());
+                final CyclicBarrier barrier = new CyclicBarrier(2);
+                List<Future<WebhookIngestor.Result>> results = new ArrayList<Future<WebhookIngestor.Result>>();
+                for (int i = 0; i < 2; i++) {
+                    final HttpServletRequest request = request("customer.created", SIGNATURE);
+                    results.add(senders.submit(() -> {
+                        barrier.await();
+                        return ingestor.accept(request);
+                    }));
+                }
+
+                int accepted = 0;
+                for (Future<WebhookIngestor.Result> result : results) {
+                    if (result.get(5, TimeUnit.SECONDS) == WebhookIngestor.Result.ACCEPTED) {
+                        accepted++;
+                    }
+                }
+                assertThat(accepted, equalTo(1));
+            }
+        } finally {
+            senders.shutdownNow();
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldVerifyBodyCollectedInChunks() {
+        ingestor = new WebhookIngestor("SecretKey");
+        byte[] body = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("responses/webhook_customer.json").toURI()));
+
+        WebhookBodyCollector collector = new WebhookBodyCollector("SecretKey", SIGNATURE, "customer.created", -1);
+        for (int offset = 0; offset < body.length; offset += 7) {
+            collector.update(body, offset, Math.min(7, body.length - offset));
+        }
+        WebhookBodyCollector forged = new WebhookBodyCollector("SecretKey", SIGNATURE, "customer.created", body.length);
+        forged.update(body, 1, body.length - 1);
+
+        assertThat(ingestor.accept(collector), equalTo(WebhookIngestor.Result.ACCEPTED));
+        assertThat(ingestor.accept(forged), equalTo(WebhookIngestor.Result.INVALID));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRefuseBodyCollectedPastLimit() {
+        ingestor = new WebhookIngestor("SecretKey");
+        WebhookBodyCollector declared = new WebhookBodyCollector("SecretKey", SIGNATURE, "customer.created",
+                WebhookSigner.MAX_BODY_SIZE + 1);
+        WebhookBodyCollector streamed = new WebhookBodyCollector("SecretKey", SIGNATURE, "customer.created", -1);
+        byte[] chunk = new byte[64 * 1024];
+        for (int i = 0; i <= WebhookSigner.MAX_BODY_SIZE / chunk.length; i++) {
+            streamed.update(chunk, 0, chunk.length);
+        }
+
+        assertThat(ingestor.accept(declared), equalTo(WebhookIngestor.Result.INVALID));
+        assertThat(ingestor.accept(streamed), equalTo(WebhookIngestor.Result.INVALID));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldReadBlockingInServlet25Container() {
+        ingestor = new WebhookIngestor("SecretKey");
+        HttpServletResponse response = mock(HttpServletResponse.class);
+
+        ingestor.acceptAsync(request("customer.created", SIGNATURE), response);
+
+        verify(response).setStatus(200);
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldHandBatchOverWhenFullOrAfterDelay() {
+        ingestor = new WebhookIngestor("SecretKey");
+        final BlockingQueue<List<WebhookEvent>> batches = new LinkedBlockingQueue<List<WebhookEvent>>();
+        WebhookBatchConfig config = new WebhookBatchConfig();
+        config.setMaxBatchSize(3);
+        config.setMaxDelay(200);
+        ingestor.registerBatch(WebhookEventType.CustomerCreated, batches::add, config);
+
+        for (int i = 0; i < 4; i++) {
+            ingestor.accept(request("customer.created", SIGNATURE));
+        }
+
+        List<WebhookEvent> full = batches.poll(5, TimeUnit.SECONDS);
+        assertThat(full.size(), equalTo(3));
+        assertThat(full.get(0).getCustomer().getFirstName(), equalTo("First_Name"));
+        List<WebhookEvent> late = batches.poll(5, TimeUnit.SECONDS);
+        assertThat(late.size(), equalTo(1));
+        for (int i = 0; i < 50 && ingestor.getProcessedCount() < 4; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(ingestor.getProcessedCount(), equalTo(4L));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldHandBatchOfDecodedPayloads() {
+        ingestor = new WebhookIngestor("SecretKey");
+        final BlockingQueue<List<Customer>> batches = new LinkedBlockingQueue<List<Customer>>();
+        WebhookBatchConfig config = new WebhookBatchConfig();
+        config.setMaxBatchSize(2);
+        ingestor.registerBatch(WebhookEventType.CustomerCreated, Customer.class, batches::add, config);
+
+        ingestor.accept(request("customer.created", SIGNATURE));
+        ingestor.accept(request("customer.created", SIGNATURE));
+
+        List<Customer> customers = batches.poll(5, TimeUnit.SECONDS);
+        assertThat(customers.size(), equalTo(2));
+        assertThat(customers.get(1).getFirstName(), equalTo("First_Name"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRefuseNegativeBatchDelay() {
+        ingestor = new WebhookIngestor("SecretKey");
+        WebhookBatchConfig config = new WebhookBatchConfig();
+        config.setMaxDelay(-1);
+        ingestor.registerBatch(WebhookEventType.CustomerCreated, events -> { }, config);
+    }
+
+    @SneakyThrows
+    static HttpServletRequest request(String eventType, String signature) {
+        final InputStream in = new ByteArrayInputStream(Files.readAllBytes(
+                Paths.get(ClassLoader.getSystemResource("responses/webhook_customer.json").toURI())));
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("X-HELPSCOUT-EVENT")).thenReturn(eventType);
+        when(request.getHeader("X-HELPSCOUT-SIGNATURE")).thenReturn(signature);
+        when(request.getInputStream()).thenReturn(new ServletInputStream() {
+            @Override
+            public int read() throws IOException {
+                return in.read();
+            }
+        });
+        return request;
+    }
+}
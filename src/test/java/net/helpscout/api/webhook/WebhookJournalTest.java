@@ -0,0 +1,92 @@
+package net.helpscout.api.webhook;
+
+import lombok.SneakyThrows;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class WebhookJournalTest {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    @SneakyThrows
+    public void shouldReplayEventsNotMarkedProcessed() {
+        File directory = folder.newFolder();
+        WebhookJournal journal = new WebhookJournal(directory);
+        long first = journal.append(event("convo.created", "{\"id\":1}"));
+        journal.append(event("customer.created", "{\"id\":2}"));
+        journal.markProcessed(first);
+        journal.close();
+
+        journal = new WebhookJournal(directory);
+        List<WebhookEvent> events = journal.unprocessed();
+        journal.close();
+
+        assertThat(events.size(), equalTo(1));
+        assertThat(events.get(0).getEventType(), equalTo("customer.created"));
+        assertThat(new String(events.get(0).getBody(), UTF_8), equalTo("{\"id\":2}"));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldRollSegmentsAndDeleteProcessedOnes() {
+        File directory = folder.newFolder();
+        WebhookJournalConfig config = new WebhookJournalConfig();
+        config.setSegmentSize(4096);
+        WebhookJournal journal = new WebhookJournal(directory, config);
+        String body = new String(new char[1000]).replace('\0', 'x');
+        for (int i = 0; i < 20; i++) {
+            journal.markProcessed(journal.append(event("convo.updated", body)));
+        }
+        journal.close();
+
+        assertThat(directory.list().length, lessThan(4));
+        journal = new WebhookJournal(directory, config);
+        assertThat(journal.unprocessed().size(), equalTo(0));
+        journal.close();
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldHandOverUnprocessedEventsToIngestor() {
+        File directory = folder.newFolder();
+        WebhookIngestorConfig config = new WebhookIngestorConfig();
+        WebhookJournal journal = new WebhookJournal(directory);
+        journal.append(event("convo.created", "{\"id\":1}"));
+        journal.close();
+
+        journal = new WebhookJournal(directory);
+        final BlockingQueue<WebhookEvent> handled = new LinkedBlockingQueue<WebhookEvent>();
+        WebhookIngestor ingestor = new WebhookIngestor("SecretKey", config, journal);
+        ingestor.register("convo.created", handled::add);
+        assertThat(ingestor.replay(), equalTo(1));
+
+        WebhookEvent event = handled.poll(5, TimeUnit.SECONDS);
+        assertThat(new String(event.getBody(), UTF_8), equalTo("{\"id\":1}"));
+        ingestor.close();
+        journal.close();
+
+        journal = new WebhookJournal(directory);
+        assertThat(journal.unprocessed().size(), equalTo(0));
+        journal.close();
+    }
+
+    private static WebhookEvent event(String eventType, String body) {
+        return new WebhookEvent(eventType, body.getBytes(UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package net.helpscout.api.webhook;
+
+import lombok.SneakyThrows;
+import net.helpscout.api.model.Customer;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+
+public class WebhookRouterTest {
+
+    @Test
+    @SneakyThrows
+    public void shouldRouteEventToHandlerOfItsType() {
+        final List<Object> customers = new ArrayList<Object>();
+        final List<Object> conversations = new ArrayList<Object>();
+        WebhookRouter router = new WebhookRouter()
+                .on(WebhookEventType.CustomerCreated, event -> customers.add(event.getPayload()))
+                .on(WebhookEventType.ConversationCreated, event -> conversations.add(event.getPayload()));
+
+        router.handle(event("customer.created"));
+
+        assertThat(customers.size(), equalTo(1));
+        assertThat(customers.get(0), instanceOf(Customer.class));
+        assertThat(((Customer) customers.get(0)).getFirstName(), equalTo("First_Name"));
+        assertThat(conversations.size(), equalTo(0));
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldDecodePayloadOnce() {
+        WebhookEvent event = event("customer.created");
+
+        assertSame(event.getPayload(), event.getCustomer());
+    }
+
+    @Test
+    @SneakyThrows
+    public void shouldSendUnknownAndUnhandledEventsToFallback() {
+        final List<String> fallback = new ArrayList<String>();
+        WebhookRouter router = new WebhookRouter()
+                .on(WebhookEventType.CustomerCreated, event -> { })
+                .otherwise(event -> fallback.add(event.getEventType()));
+
+        router.handle(event("customer.created"));
+        router.handle(event("convo.created"));
+        router.handle(event("x"));
+        router.handle(event(null));
+
+        assertThat(fallback, equalTo(Arrays.asList("convo.created", "x", null)));
+    }
+
+    @SneakyThrows
+    private static WebhookEvent event(String eventType) {
+        return new WebhookEvent(eventType, Files.readAllBytes(
+                Paths.get(ClassLoader.getSystemResource("responses/webhook_customer.json").toURI())));
+    }
+}